@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.benchmarks;
+
+import static java.util.Collections.emptyList;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import capital.scalable.restdocs.constraints.ConstraintReader;
+import capital.scalable.restdocs.jackson.FieldDocumentationGenerator;
+import capital.scalable.restdocs.javadoc.JavadocReader;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+
+/**
+ * Time and allocations of a field documentation run over a wide type. The field descriptor
+ * cache is disabled, so every invocation walks the type with the Jackson visitors.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.springframework.restdocs.fieldCacheMaxSize=0")
+public class FieldDocumentationBenchmark {
+
+    private ObjectWriter writer;
+    private JavaType type;
+    private JavadocReader javadocReader;
+    private ConstraintReader constraintReader;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        writer = mapper.writer();
+        type = mapper.constructType(WideType.class);
+        javadocReader = new NoJavadocReader();
+        constraintReader = new NoConstraintReader();
+    }
+
+    @Benchmark
+    public Object generateDocumentation() throws Exception {
+        return new FieldDocumentationGenerator(writer, javadocReader, constraintReader)
+                .generateDocumentation(type);
+    }
+
+    public static class WideType {
+        public String s1, s2, s3, s4, s5, s6, s7, s8, s9, s10;
+        public Integer i1, i2, i3, i4, i5, i6, i7, i8, i9, i10;
+        public Boolean b1, b2, b3, b4, b5;
+        public BigDecimal d1, d2, d3, d4, d5;
+        public Money m1, m2, m3, m4, m5;
+        public List<Money> l1, l2, l3, l4, l5;
+    }
+
+    public static class Money {
+        public BigDecimal amount;
+        public String currency;
+    }
+
+    private static class NoJavadocReader implements JavadocReader {
+        @Override
+        public String resolveFieldComment(Class<?> javaBaseClass, String javaFieldName) {
+            return null;
+        }
+
+        @Override
+        public String resolveMethodComment(Class<?> javaBaseClass, String javaMethodName) {
+            return null;
+        }
+
+        @Override
+        public String resolveMethodParameterComment(Class<?> javaBaseClass,
+                String javaMethodName, String javaParameterName) {
+            return null;
+        }
+    }
+
+    private static class NoConstraintReader implements ConstraintReader {
+        @Override
+        public boolean isMandatory(Class<?> annotation) {
+            return false;
+        }
+
+        @Override
+        public List<String> getConstraintMessages(Class<?> javaBaseClass, String javaFieldName) {
+            return emptyList();
+        }
+
+        @Override
+        public List<String> getConstraintMessages(MethodParameter param) {
+            return emptyList();
+        }
+
+        @Override
+        public List<String> getOptionalMessages(Class<?> javaBaseClass, String javaFieldName) {
+            return emptyList();
+        }
+    }
+}
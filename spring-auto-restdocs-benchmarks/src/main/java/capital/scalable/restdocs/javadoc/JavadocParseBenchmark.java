@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parse time of the same class Javadoc in text JSON and in Smile as written by the
+ * doclet with {@code -smile}, i.e. without shared names. In the Javadoc package, as
+ * parsing is not public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavadocParseBenchmark {
+
+    private JavadocReaderImpl reader;
+    private byte[] json;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws Exception {
+        reader = new JavadocReaderImpl(".");
+        Map<String, Object> javadoc = javadoc(30);
+        json = new ObjectMapper().writeValueAsBytes(javadoc);
+        SmileFactory smileFactory = new SmileFactory()
+                .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES);
+        smile = new ObjectMapper(smileFactory).writeValueAsBytes(javadoc);
+    }
+
+    @Benchmark
+    public Object parseJson() throws Exception {
+        return reader.parse(json);
+    }
+
+    @Benchmark
+    public Object parseSmile() throws Exception {
+        return reader.parse(smile);
+    }
+
+    private static Map<String, Object> javadoc(int members) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        Map<String, Object> methods = new LinkedHashMap<>();
+        for (int i = 0; i < members; i++) {
+            fields.put("field" + i, "Comment of field " + i + ", with some <b>HTML</b>.");
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put("value", "The new value of field " + i);
+            Map<String, Object> method = new LinkedHashMap<>();
+            method.put("comment", "Sets field " + i + ".");
+            method.put("parameters", parameters);
+            methods.put("setField" + i, method);
+        }
+        Map<String, Object> javadoc = new LinkedHashMap<>();
+        javadoc.put("comment", "A class with " + members + " documented fields.");
+        javadoc.put("fields", fields);
+        javadoc.put("methods", methods);
+        return javadoc;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hashes of class bytecode, computed once per class and JVM.
+ */
+public final class ClassHashes {
+    private static final Map<Class<?>, String> hashes = new ConcurrentHashMap<>();
+
+    private ClassHashes() {
+        // util
+    }
+
+    /**
+     * SHA-1 of the bytecode of the given class. JDK classes are identified by the
+     * Java version. Returns null if the bytecode can not be read.
+     */
+    public static String hash(Class<?> clazz) {
+        String hash = hashes.get(clazz);
+        if (hash == null) {
+            hash = computeHash(clazz);
+            if (hash != null) {
+                hashes.put(clazz, hash);
+            }
+        }
+        return hash;
+    }
+
+    public static String sha1(String value) {
+        MessageDigest digest = sha1();
+        try {
+            return hex(digest.digest(value.getBytes("UTF-8")));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String sha1(InputStream in) throws IOException {
+        MessageDigest digest = sha1();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return hex(digest.digest());
+    }
+
+    private static String computeHash(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.getClassLoader() == null) {
+            return "jdk-" + System.getProperty("java.version");
+        }
+        String resource = clazz.getName().replace('.', '/') + ".class";
+        try (InputStream in = clazz.getClassLoader().getResourceAsStream(resource)) {
+            return in != null ? sha1(in) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.cache;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.util.StringUtils.hasText;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+
+/**
+ * Optional on-disk cache for documentation that is expensive to compute,
+ * e.g. Jackson field structures and constraint descriptions.
+ * <p>
+ * Enabled by setting the system property {@code org.springframework.restdocs.cacheDir}.
+ * Entries are JSON files grouped by category. Callers are responsible for storing
+ * enough information, e.g. {@link ClassHashes}, to detect stale entries.
+ */
+public class DocumentationCache {
+    public static final String CACHE_DIR_PROPERTY = "org.springframework.restdocs.cacheDir";
+
+    private static final Logger log = getLogger(DocumentationCache.class);
+    private static final DocumentationCache instance = fromSystemProperties();
+
+    private final File cacheDir;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public DocumentationCache(File cacheDir) {
+        this.cacheDir = cacheDir;
+        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Cache configured by system property, disabled if the property is not set.
+     */
+    public static DocumentationCache getInstance() {
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    /**
+     * Reads an entry. Returns null if the cache is disabled or the entry is missing
+     * or unreadable.
+     */
+    public <T> T read(String category, String name, Class<T> type) {
+        if (!isEnabled()) {
+            return null;
+        }
+        File file = file(category, name);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return mapper.readValue(file, type);
+        } catch (IOException e) {
+            log.debug("Ignoring unreadable cache entry {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes an entry. Failures are logged, but do not fail documentation.
+     */
+    public void write(String category, String name, Object value) {
+        if (!isEnabled()) {
+            return;
+        }
+        File file = file(category, name);
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            // write and move, so that concurrent test JVMs never read half written entries
+            File tempFile = File.createTempFile(name, ".tmp", file.getParentFile());
+            mapper.writeValue(tempFile, value);
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Problem writing cache entry {}", file, e);
+        }
+    }
+
+    private File file(String category, String name) {
+        return new File(new File(cacheDir, category), name + ".json");
+    }
+
+    private static DocumentationCache fromSystemProperties() {
+        String cacheDir = System.getProperties().getProperty(CACHE_DIR_PROPERTY);
+        if (hasText(cacheDir)) {
+            return new DocumentationCache(new File(cacheDir.trim()).getAbsoluteFile());
+        }
+        return new DocumentationCache(null);
+    }
+}
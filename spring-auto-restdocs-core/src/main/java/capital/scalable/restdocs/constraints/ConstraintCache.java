@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.constraints;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import capital.scalable.restdocs.cache.ClassHashes;
+import capital.scalable.restdocs.cache.DocumentationCache;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Persists constraint and optional messages per class in the {@link DocumentationCache}.
+ * <p>
+ * Entries are keyed by the bytecode of the class, its superclasses, the enums used
+ * by its fields and the constraint description resource bundles. Classes whose
+ * bytecode can not be read are not persisted.
+ * <p>
+ * New messages are collected in memory and each changed class is written once
+ * when the JVM exits, see {@link #flush()}.
+ */
+class ConstraintCache {
+    private static final String CATEGORY = "constraints";
+    private static final String DESCRIPTIONS_RESOURCE =
+            "org/springframework/restdocs/constraints/ConstraintDescriptions.properties";
+
+    private static final ConstraintCache instance =
+            new ConstraintCache(DocumentationCache.getInstance());
+
+    private final DocumentationCache cache;
+    private final ConcurrentMap<Class<?>, ClassConstraints> classes =
+            new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRegistered = new AtomicBoolean();
+    private String descriptionsHash;
+
+    ConstraintCache(DocumentationCache cache) {
+        this.cache = cache;
+    }
+
+    static ConstraintCache getInstance() {
+        return instance;
+    }
+
+    boolean isEnabled() {
+        return cache.isEnabled();
+    }
+
+    List<String> getConstraintMessages(Class<?> javaBaseClass, String javaFieldName) {
+        return copy(classConstraints(javaBaseClass).constraints.get(javaFieldName));
+    }
+
+    void putConstraintMessages(Class<?> javaBaseClass, String javaFieldName,
+            List<String> messages) {
+        ClassConstraints classConstraints = classConstraints(javaBaseClass);
+        classConstraints.constraints.put(javaFieldName, copy(messages));
+        changed(classConstraints);
+    }
+
+    List<String> getOptionalMessages(Class<?> javaBaseClass, String javaFieldName) {
+        return copy(classConstraints(javaBaseClass).optionals.get(javaFieldName));
+    }
+
+    void putOptionalMessages(Class<?> javaBaseClass, String javaFieldName,
+            List<String> messages) {
+        ClassConstraints classConstraints = classConstraints(javaBaseClass);
+        classConstraints.optionals.put(javaFieldName, copy(messages));
+        changed(classConstraints);
+    }
+
+    /**
+     * Writes all classes with new messages since the last flush.
+     */
+    void flush() {
+        for (Map.Entry<Class<?>, ClassConstraints> entry : classes.entrySet()) {
+            ClassConstraints classConstraints = entry.getValue();
+            if (classConstraints.changed) {
+                // reset first, so that messages added while writing are written again
+                classConstraints.changed = false;
+                cache.write(CATEGORY, entry.getKey().getName(), classConstraints);
+            }
+        }
+    }
+
+    private void changed(ClassConstraints classConstraints) {
+        if (classConstraints.hash == null) {
+            // could never be validated when read again
+            return;
+        }
+        classConstraints.changed = true;
+        if (flushRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread("constraint-cache-flush") {
+                @Override
+                public void run() {
+                    flush();
+                }
+            });
+        }
+    }
+
+    private ClassConstraints classConstraints(Class<?> javaBaseClass) {
+        ClassConstraints classConstraints = classes.get(javaBaseClass);
+        if (classConstraints != null) {
+            return classConstraints;
+        }
+
+        String hash = hash(javaBaseClass);
+        classConstraints = cache.read(CATEGORY, javaBaseClass.getName(), ClassConstraints.class);
+        if (classConstraints == null || hash == null || !hash.equals(classConstraints.hash)) {
+            classConstraints = new ClassConstraints(hash);
+        }
+        ClassConstraints existing = classes.putIfAbsent(javaBaseClass, classConstraints);
+        return existing != null ? existing : classConstraints;
+    }
+
+    private String hash(Class<?> javaBaseClass) {
+        StringBuilder hashes = new StringBuilder(descriptionsHash());
+        for (Class<?> clazz = javaBaseClass; clazz != null && clazz != Object.class;
+                clazz = clazz.getSuperclass()) {
+            if (!appendHash(hashes, clazz)) {
+                return null;
+            }
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.getType().isEnum() && !appendHash(hashes, field.getType())) {
+                    return null;
+                }
+            }
+        }
+        return ClassHashes.sha1(hashes.toString());
+    }
+
+    private static boolean appendHash(StringBuilder hashes, Class<?> clazz) {
+        String hash = ClassHashes.hash(clazz);
+        if (hash == null) {
+            return false;
+        }
+        hashes.append(hash);
+        return true;
+    }
+
+    private synchronized String descriptionsHash() {
+        if (descriptionsHash == null) {
+            StringBuilder hashes = new StringBuilder();
+            try {
+                Enumeration<URL> resources = ConstraintCache.class.getClassLoader()
+                        .getResources(DESCRIPTIONS_RESOURCE);
+                while (resources.hasMoreElements()) {
+                    try (InputStream in = resources.nextElement().openStream()) {
+                        hashes.append(ClassHashes.sha1(in));
+                    }
+                }
+            } catch (IOException e) {
+                hashes.append("unreadable");
+            }
+            descriptionsHash = hashes.toString();
+        }
+        return descriptionsHash;
+    }
+
+    private static List<String> copy(List<String> messages) {
+        return messages != null ? new ArrayList<>(messages) : null;
+    }
+
+    static class ClassConstraints {
+        private String hash;
+        private ConcurrentHashMap<String, List<String>> constraints = new ConcurrentHashMap<>();
+        private ConcurrentHashMap<String, List<String>> optionals = new ConcurrentHashMap<>();
+        @JsonIgnore
+        private volatile boolean changed;
+
+        ClassConstraints() {
+            // for Jackson
+        }
+
+        ClassConstraints(String hash) {
+            this.hash = hash;
+        }
+    }
+}
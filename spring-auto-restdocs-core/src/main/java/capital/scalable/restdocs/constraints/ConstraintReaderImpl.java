@@ -50,9 +50,29 @@ public class ConstraintReaderImpl implements ConstraintReader {
     private ConstraintResolver constraintResolver =
             new HumanReadableConstraintResolver(skippableConstraintResolver);
 
+    private final ConstraintCache constraintCache;
+
+    public ConstraintReaderImpl() {
+        this(ConstraintCache.getInstance());
+    }
+
+    ConstraintReaderImpl(ConstraintCache constraintCache) {
+        this.constraintCache = constraintCache;
+    }
+
     @Override
     public List<String> getOptionalMessages(Class<?> javaBaseClass, String javaFieldName) {
-        return skippableConstraintResolver.getOptionalMessages(javaFieldName, javaBaseClass);
+        if (!constraintCache.isEnabled()) {
+            return skippableConstraintResolver.getOptionalMessages(javaFieldName, javaBaseClass);
+        }
+
+        List<String> messages = constraintCache.getOptionalMessages(javaBaseClass, javaFieldName);
+        if (messages == null) {
+            messages = skippableConstraintResolver.getOptionalMessages(javaFieldName,
+                    javaBaseClass);
+            constraintCache.putOptionalMessages(javaBaseClass, javaFieldName, messages);
+        }
+        return messages;
     }
 
     @Override
@@ -62,6 +82,21 @@ public class ConstraintReaderImpl implements ConstraintReader {
 
     @Override
     public List<String> getConstraintMessages(Class<?> javaBaseClass, String javaFieldName) {
+        if (!constraintCache.isEnabled()) {
+            return resolveConstraintMessages(javaBaseClass, javaFieldName);
+        }
+
+        List<String> messages =
+                constraintCache.getConstraintMessages(javaBaseClass, javaFieldName);
+        if (messages == null) {
+            messages = resolveConstraintMessages(javaBaseClass, javaFieldName);
+            constraintCache.putConstraintMessages(javaBaseClass, javaFieldName, messages);
+        }
+        return messages;
+    }
+
+    private List<String> resolveConstraintMessages(Class<?> javaBaseClass,
+            String javaFieldName) {
         ConstraintDescriptions constraints = new ConstraintDescriptions(javaBaseClass,
                 constraintResolver, constraintDescriptionResolver);
         List<String> constraintMessages = new ArrayList<>();
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jackson;
+
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import capital.scalable.restdocs.constraints.ConstraintReader;
+import capital.scalable.restdocs.javadoc.JavadocReader;
+import capital.scalable.restdocs.javadoc.JavadocReaderRegistry;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.restdocs.snippet.Attributes.Attribute;
+
+/**
+ * JVM-wide least recently used cache of the field descriptors of documented types,
+ * so that a type used by many requests is introspected by Jackson only once.
+ * <p>
+ * Entries are keyed by the identity of the serialization configuration, which changes
+ * with every reconfiguration of the {@code ObjectMapper} and covers the active JSON view,
+ * by the type and by the Javadoc and constraint readers, which are shared across requests,
+ * see {@link JacksonResultHandlers}. Descriptors and their list attributes are copied on
+ * the way in and out, so callers are free to modify them. Entries of a Javadoc reader that
+ * dropped comments, e.g. in watch mode, are not used anymore.
+ */
+class FieldDescriptorCache {
+    static final String MAX_SIZE_PROPERTY = "org.springframework.restdocs.fieldCacheMaxSize";
+    static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final FieldDescriptorCache instance = fromSystemProperties();
+
+    private final Map<Key, List<FieldDescriptor>> entries;
+    private final int maxSize;
+
+    FieldDescriptorCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<Key, List<FieldDescriptor>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<FieldDescriptor>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    static FieldDescriptorCache fromSystemProperties() {
+        String maxSize = System.getProperties().getProperty(MAX_SIZE_PROPERTY);
+        if (maxSize != null && !maxSize.trim().isEmpty()) {
+            return new FieldDescriptorCache(Integer.parseInt(maxSize.trim()));
+        }
+        return new FieldDescriptorCache(DEFAULT_MAX_SIZE);
+    }
+
+    static FieldDescriptorCache getInstance() {
+        return instance;
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Key of the descriptors of the given type. Taken before the type is introspected,
+     * so that descriptors built while Javadoc changed are not found again.
+     */
+    Key key(ObjectWriter writer, JavaType type, JavadocReader javadocReader,
+            ConstraintReader constraintReader) {
+        return new Key(writer.getConfig(), type, javadocReader, constraintReader);
+    }
+
+    /**
+     * Copy of the cached descriptors, or null if there is no entry.
+     */
+    List<FieldDescriptor> get(Key key) {
+        List<FieldDescriptor> descriptors;
+        synchronized (this) {
+            descriptors = entries.get(key);
+        }
+        return descriptors != null ? copy(descriptors) : null;
+    }
+
+    void put(Key key, List<FieldDescriptor> descriptors) {
+        List<FieldDescriptor> copy = copy(descriptors);
+        synchronized (this) {
+            entries.put(key, copy);
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static List<FieldDescriptor> copy(List<FieldDescriptor> descriptors) {
+        List<FieldDescriptor> copy = new ArrayList<>(descriptors.size());
+        for (FieldDescriptor descriptor : descriptors) {
+            copy.add(copy(descriptor, descriptor.getPath()));
+        }
+        return copy;
+    }
+
+    /**
+     * Copy of the given descriptor with another JSON path.
+     */
+    static FieldDescriptor copy(FieldDescriptor descriptor, String path) {
+        FieldDescriptor copy = fieldWithPath(path)
+                .type(descriptor.getType())
+                .description(descriptor.getDescription());
+        if (descriptor.isOptional()) {
+            copy.optional();
+        }
+        if (descriptor.isIgnored()) {
+            copy.ignored();
+        }
+        for (Map.Entry<String, Object> attribute : descriptor.getAttributes().entrySet()) {
+            copy.attributes(new Attribute(attribute.getKey(), copy(attribute.getValue())));
+        }
+        return copy;
+    }
+
+    /**
+     * Copy of a list attribute value, e.g. the constraint messages, so that cached
+     * descriptors do not share mutable lists with the callers.
+     */
+    private static Object copy(Object value) {
+        return value instanceof List ? new ArrayList<>((List<?>) value) : value;
+    }
+
+    static final class Key {
+        private final SerializationConfig config;
+        private final JavaType type;
+        private final JavadocReader javadocReader;
+        private final ConstraintReader constraintReader;
+        private final long javadocModifications;
+
+        Key(SerializationConfig config, JavaType type, JavadocReader javadocReader,
+                ConstraintReader constraintReader) {
+            this.config = config;
+            this.type = type;
+            this.javadocReader = javadocReader;
+            this.constraintReader = constraintReader;
+            this.javadocModifications = JavadocReaderRegistry.getModificationCount(javadocReader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return config == other.config
+                    && javadocReader == other.javadocReader
+                    && constraintReader == other.constraintReader
+                    && javadocModifications == other.javadocModifications
+                    && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(config);
+            result = 31 * result + type.hashCode();
+            result = 31 * result + System.identityHashCode(javadocReader);
+            result = 31 * result + System.identityHashCode(constraintReader);
+            return 31 * result + (int) (javadocModifications ^ (javadocModifications >>> 32));
+        }
+    }
+}
@@ -21,26 +21,42 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonArrayFormatVisitor;
 import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitable;
-import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
 
 public class FieldDocumentationArrayVisitor extends JsonArrayFormatVisitor.Base {
 
     private final FieldDocumentationVisitorContext context;
-    private final String path;
+    // reused for all arrays of the same depth, see FieldDocumentationVisitorContext
+    private final FieldDocumentationVisitorWrapper visitor;
 
     public FieldDocumentationArrayVisitor(SerializerProvider provider,
-            FieldDocumentationVisitorContext context, String path) {
+            FieldDocumentationVisitorContext context) {
         super(provider);
         this.context = context;
-        this.path = path;
+        this.visitor = new FieldDocumentationVisitorWrapper(provider, context, null);
+    }
+
+    /**
+     * Prepares this visitor for the next array, so that it can be reused.
+     */
+    void reset(SerializerProvider provider) {
+        setProvider(provider);
+        visitor.setProvider(provider);
     }
 
     @Override
     public void itemsFormat(JsonFormatVisitable handler, JavaType elementType)
             throws JsonMappingException {
-        String elementPath = path + "[]";
-        JsonFormatVisitorWrapper visitor =
-                new FieldDocumentationVisitorWrapper(getProvider(), context, elementPath, null);
-        handler.acceptJsonFormatVisitor(visitor, elementType);
+        context.addVisitedType(elementType.getRawClass());
+        context.addVisitedType(handler.getClass());
+
+        visitor.reset(null);
+        context.getPath().pushArray();
+        context.enter(elementType);
+        try {
+            handler.acceptJsonFormatVisitor(visitor, elementType);
+        } finally {
+            context.exit();
+            context.getPath().pop();
+        }
     }
 }
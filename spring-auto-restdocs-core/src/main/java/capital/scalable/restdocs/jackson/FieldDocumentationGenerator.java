@@ -16,26 +16,48 @@
 
 package capital.scalable.restdocs.jackson;
 
+import static org.slf4j.LoggerFactory.getLogger;
+
 import java.lang.reflect.Type;
 import java.util.List;
 
 import capital.scalable.restdocs.constraints.ConstraintReader;
+import capital.scalable.restdocs.jackson.PersistentFieldCache.CachedField;
 import capital.scalable.restdocs.javadoc.JavadocReader;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.slf4j.Logger;
 import org.springframework.restdocs.payload.FieldDescriptor;
 
 public class FieldDocumentationGenerator {
+    private static final Logger log = getLogger(FieldDocumentationGenerator.class);
 
     private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
     private final JavadocReader javadocReader;
     private ConstraintReader constraintReader;
 
+    /**
+     * Generator for the given writer. The persistent field cache is not used, because
+     * the serializers of a writer can not be inspected.
+     */
     public FieldDocumentationGenerator(ObjectWriter writer, JavadocReader javadocReader,
             ConstraintReader constraintReader) {
+        this(writer, null, javadocReader, constraintReader);
+    }
+
+    public FieldDocumentationGenerator(ObjectMapper objectMapper, JavadocReader javadocReader,
+            ConstraintReader constraintReader) {
+        this(objectMapper.writer(), objectMapper, javadocReader, constraintReader);
+    }
+
+    private FieldDocumentationGenerator(ObjectWriter writer, ObjectMapper objectMapper,
+            JavadocReader javadocReader, ConstraintReader constraintReader) {
         this.writer = writer;
+        this.objectMapper = objectMapper;
         this.javadocReader = javadocReader;
         this.constraintReader = constraintReader;
     }
@@ -46,9 +68,55 @@ public class FieldDocumentationGenerator {
     }
 
     public List<FieldDescriptor> generateDocumentation(JavaType type) throws JsonMappingException {
-        FieldDocumentationVisitorWrapper visitorWrapper = FieldDocumentationVisitorWrapper.create(
-                javadocReader, constraintReader);
+        FieldDescriptorCache descriptorCache = FieldDescriptorCache.getInstance();
+        if (!descriptorCache.isEnabled()) {
+            return introspect(type);
+        }
+        FieldDescriptorCache.Key key =
+                descriptorCache.key(writer, type, javadocReader, constraintReader);
+        List<FieldDescriptor> descriptors = descriptorCache.get(key);
+        if (descriptors == null) {
+            descriptors = introspect(type);
+            descriptorCache.put(key, descriptors);
+        }
+        return descriptors;
+    }
+
+    private List<FieldDescriptor> introspect(JavaType type) throws JsonMappingException {
+        FieldDocumentationVisitorContext context =
+                new FieldDocumentationVisitorContext(javadocReader, constraintReader);
+
+        PersistentFieldCache fieldCache = PersistentFieldCache.getInstance();
+        boolean persistent = objectMapper != null && fieldCache.isEnabled();
+        if (persistent) {
+            List<CachedField> cachedFields = fieldCache.get(objectMapper, type,
+                    context.getMaxDepth(), context.getMaxCount());
+            if (cachedFields != null) {
+                for (CachedField field : cachedFields) {
+                    context.addField(field.toFieldInfo(), field.getJsonType());
+                }
+                return context.getFields();
+            }
+            context.startRecording();
+            context.addVisitedType(type.getRawClass());
+        }
+
+        FieldDocumentationVisitorWrapper visitorWrapper =
+                new FieldDocumentationVisitorWrapper(context, null);
+        context.enter(type);
         writer.acceptJsonFormatVisitor(type, visitorWrapper);
-        return visitorWrapper.getContext().getFields();
+        context.exit();
+
+        // truncated fields depend on the budgets and are not persisted
+        if (context.isTruncated()) {
+            log.warn("Fields of {} are truncated at the maximum depth or number of fields, "
+                    + "see the system properties {} and {}", type,
+                    FieldDocumentationVisitorContext.MAX_DEPTH_PROPERTY,
+                    FieldDocumentationVisitorContext.MAX_COUNT_PROPERTY);
+        } else if (persistent) {
+            fieldCache.put(objectMapper, type, context.getMaxDepth(), context.getMaxCount(),
+                    context.getRecordedFields(), context.getRecordedTypes());
+        }
+        return context.getFields();
     }
 }
@@ -16,25 +16,34 @@
 
 package capital.scalable.restdocs.jackson;
 
+import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
 import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonObjectFormatVisitor;
 import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
 
 public class FieldDocumentationObjectVisitor extends JsonObjectFormatVisitor.Base {
 
     private final FieldDocumentationVisitorContext context;
-    private final String path;
+    // reused for all properties, as each is visited completely before the next one
+    private final FieldDocumentationVisitorWrapper visitor;
 
     public FieldDocumentationObjectVisitor(SerializerProvider provider,
-            FieldDocumentationVisitorContext context, String path) {
+            FieldDocumentationVisitorContext context) {
         super(provider);
         this.context = context;
-        this.path = path;
+        this.visitor = new FieldDocumentationVisitorWrapper(provider, context, null);
+    }
+
+    /**
+     * Prepares this visitor for the next value, so that it can be reused.
+     */
+    void reset(SerializerProvider provider) {
+        setProvider(provider);
+        visitor.setProvider(provider);
     }
 
     @Override
@@ -53,17 +62,69 @@ public class FieldDocumentationObjectVisitor extends JsonObjectFormatVisitor.Bas
             return;
         }
 
-        String fieldPath = path + (path.isEmpty() ? "" : ".") + jsonName;
+        context.addVisitedType(type.getRawClass());
+        context.addVisitedType(ser.getClass());
+
+        FieldPath path = context.getPath();
+        path.push(jsonName);
+        try {
+            visitProperty(prop, type, ser, path);
+        } finally {
+            path.pop();
+        }
+    }
+
+    private void visitProperty(BeanProperty prop, JavaType type, JsonSerializer<?> ser,
+            FieldPath fieldPath) throws JsonMappingException {
         Class<?> javaBaseClass = prop.getMember().getDeclaringClass();
         boolean shouldExpand = shouldExpand(prop);
 
-        InternalFieldInfo fieldInfo =
-                new InternalFieldInfo(javaBaseClass, fieldName, fieldPath, shouldExpand);
+        InternalFieldInfo fieldInfo = new InternalFieldInfo(javaBaseClass,
+                prop.getMember().getName(), fieldPath, shouldExpand);
+
+        // value types reused by many properties are visited once
+        if (context.replaySubtree(type, ser, fieldInfo)) {
+            return;
+        }
+        FieldDocumentationVisitorContext.Mark mark = context.mark();
+
+        visit(ser, type, fieldInfo);
+        if (shouldExpand) {
+            visitSubtypes(prop, type);
+        }
+        context.memoizeSubtree(type, ser, fieldInfo, mark);
+    }
 
-        JsonFormatVisitorWrapper visitor =
-                new FieldDocumentationVisitorWrapper(getProvider(), context, fieldPath, fieldInfo);
+    private void visit(JsonSerializer<?> ser, JavaType type, InternalFieldInfo fieldInfo)
+            throws JsonMappingException {
+        visitor.reset(fieldInfo);
+        context.enter(type);
+        try {
+            ser.acceptJsonFormatVisitor(visitor, type);
+        } finally {
+            context.exit();
+        }
+    }
 
-        ser.acceptJsonFormatVisitor(visitor, type);
+    /**
+     * Adds the fields of the {@link JsonSubTypes} of a polymorphic property type below
+     * the property. Fields shared by several subtypes are documented once.
+     */
+    private void visitSubtypes(BeanProperty prop, JavaType type) throws JsonMappingException {
+        JsonSubTypes jsonSubTypes = type.getRawClass().getAnnotation(JsonSubTypes.class);
+        if (jsonSubTypes == null) {
+            return;
+        }
+        for (JsonSubTypes.Type subType : jsonSubTypes.value()) {
+            JavaType subtype = getProvider().getTypeFactory()
+                    .constructSpecializedType(type, subType.value());
+            JsonSerializer<Object> ser = getProvider().findValueSerializer(subtype, prop);
+            context.addVisitedType(subtype.getRawClass());
+            context.addVisitedType(ser.getClass());
+
+            // no field info, as the property itself is already documented
+            visit(ser, subtype, null);
+        }
     }
 
     protected JsonSerializer<?> getSer(BeanProperty prop) throws JsonMappingException {
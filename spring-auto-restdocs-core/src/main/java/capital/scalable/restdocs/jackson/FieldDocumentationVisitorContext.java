@@ -20,104 +20,434 @@ import static capital.scalable.restdocs.constraints.ConstraintReader.CONSTRAINTS
 import static capital.scalable.restdocs.constraints.ConstraintReader.OPTIONAL_ATTRIBUTE;
 import static capital.scalable.restdocs.util.FieldUtil.fromGetter;
 import static capital.scalable.restdocs.util.FieldUtil.isGetter;
-import static org.apache.commons.lang3.StringUtils.isBlank;
+import static java.util.Collections.singletonList;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import capital.scalable.restdocs.constraints.ConstraintReader;
+import capital.scalable.restdocs.jackson.PersistentFieldCache.CachedField;
+import capital.scalable.restdocs.javadoc.AbstractJavadocReader;
 import capital.scalable.restdocs.javadoc.JavadocReader;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.snippet.Attributes.Attribute;
 
+/**
+ * Collects the fields of a documented type while its serializers are visited.
+ * <p>
+ * The types on the current JSON path are tracked, so that a type is not expanded inside
+ * itself: the field of a self-referencing or mutually recursive type is documented, but
+ * not its content. The nesting depth and the number of fields are bounded by the system
+ * properties {@code org.springframework.restdocs.fieldMaxDepth} and
+ * {@code org.springframework.restdocs.fieldMaxCount}.
+ */
 public class FieldDocumentationVisitorContext {
+    static final String MAX_DEPTH_PROPERTY = "org.springframework.restdocs.fieldMaxDepth";
+    static final String MAX_COUNT_PROPERTY = "org.springframework.restdocs.fieldMaxCount";
+    static final int DEFAULT_MAX_DEPTH = 20;
+    static final int DEFAULT_MAX_COUNT = 1000;
+    // shared by all fields without optionality constraint, the lists are not modified
+    private static final List<String> DEFAULT_OPTIONAL = singletonList("true");
+
     private final List<FieldDescriptor> fields = new ArrayList<>();
-    private JavadocReader javadocReader;
+    private final List<InternalFieldInfo> fieldInfos = new ArrayList<>();
+    private final List<String> jsonTypes = new ArrayList<>();
+    private final Set<String> paths = new HashSet<>();
+    private final Map<SubtreeKey, Subtree> subtrees = new HashMap<>();
+    private final List<JavaType> types = new ArrayList<>();
+    private final FieldPath path = new FieldPath();
+    private final List<FieldDocumentationObjectVisitor> objectVisitors = new ArrayList<>();
+    private final List<FieldDocumentationArrayVisitor> arrayVisitors = new ArrayList<>();
+    private final int maxDepth;
+    private final int maxCount;
+    private AbstractJavadocReader javadocReader;
     private ConstraintReader constraintReader;
+    private List<CachedField> recordedFields;
+    private Set<Class<?>> recordedTypes;
+    private int cuts;
+    private int deepest;
+    private boolean truncated;
 
     public FieldDocumentationVisitorContext(JavadocReader javadocReader,
             ConstraintReader constraintReader) {
-        this.javadocReader = javadocReader;
+        this(javadocReader, constraintReader,
+                Integer.getInteger(MAX_DEPTH_PROPERTY, DEFAULT_MAX_DEPTH),
+                Integer.getInteger(MAX_COUNT_PROPERTY, DEFAULT_MAX_COUNT));
+    }
+
+    FieldDocumentationVisitorContext(JavadocReader javadocReader,
+            ConstraintReader constraintReader, int maxDepth, int maxCount) {
+        this.javadocReader = AbstractJavadocReader.of(javadocReader);
         this.constraintReader = constraintReader;
+        this.maxDepth = maxDepth;
+        this.maxCount = maxCount;
     }
 
     public List<FieldDescriptor> getFields() {
         return fields;
     }
 
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    int getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * Documents a field, unless a field with the same path is already documented,
+     * e.g. by another subtype of a polymorphic type.
+     */
     public void addField(InternalFieldInfo info, String jsonType) {
+        if (paths.contains(info.getJsonFieldPath())) {
+            return;
+        }
+        if (fields.size() >= maxCount) {
+            cuts++;
+            truncated = true;
+            return;
+        }
         Class<?> javaFieldClass = info.getJavaBaseClass();
         String javaFieldName = info.getJavaFieldName();
 
-        String comment = resolveComment(javaFieldClass, javaFieldName);
+        String comment = javadocReader.resolvePropertyComment(javaFieldClass, javaFieldName);
         String jsonFieldPath = info.getJsonFieldPath();
 
         FieldDescriptor fieldDescriptor = fieldWithPath(jsonFieldPath)
                 .type(jsonType)
                 .description(comment);
 
-        Attribute constraints = constraintAttribute(javaFieldClass, javaFieldName);
-        Attribute optionals = optionalAttribute(javaFieldClass, javaFieldName);
+        // constraints are annotations, not Javadoc, so the getter falls back to its field here
+        String getterField = isGetter(javaFieldName) ? fromGetter(javaFieldName) : null;
+        Attribute constraints = constraintAttribute(javaFieldClass, javaFieldName, getterField);
+        Attribute optionals = optionalAttribute(javaFieldClass, javaFieldName, getterField);
         fieldDescriptor.attributes(constraints, optionals);
 
+        add(fieldDescriptor, info, jsonType);
+    }
+
+    private void add(FieldDescriptor fieldDescriptor, InternalFieldInfo info, String jsonType) {
+        if (!paths.add(info.getJsonFieldPath())) {
+            return;
+        }
         fields.add(fieldDescriptor);
+        fieldInfos.add(info);
+        jsonTypes.add(jsonType);
+
+        if (recordedFields != null) {
+            recordedFields.add(new CachedField(info, jsonType));
+            recordedTypes.add(info.getJavaBaseClass());
+        }
+    }
+
+    /**
+     * Enters a value of the given type, whose serializer is visited next.
+     */
+    void enter(JavaType type) {
+        types.add(type);
+        deepest = Math.max(deepest, types.size());
+    }
+
+    /**
+     * Leaves the value entered last.
+     */
+    void exit() {
+        types.remove(types.size() - 1);
+    }
+
+    /**
+     * Whether the content of the value entered last is documented. It is not if the
+     * value's type is already expanded further up the path, or if the depth or
+     * field budget is used up.
+     */
+    boolean mayExpand() {
+        if (types.isEmpty()) {
+            return true;
+        }
+        JavaType type = types.get(types.size() - 1);
+        if (types.indexOf(type) < types.size() - 1) {
+            cuts++;
+            return false;
+        }
+        if (types.size() > maxDepth || fields.size() >= maxCount) {
+            cuts++;
+            truncated = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Visitor of the properties of the value entered last. Visitors are pooled per depth,
+     * as all properties of a value are visited before the next value of the same depth.
+     */
+    FieldDocumentationObjectVisitor objectVisitor(SerializerProvider provider) {
+        int depth = types.size();
+        while (objectVisitors.size() <= depth) {
+            objectVisitors.add(null);
+        }
+        FieldDocumentationObjectVisitor visitor = objectVisitors.get(depth);
+        if (visitor == null) {
+            visitor = new FieldDocumentationObjectVisitor(provider, this);
+            objectVisitors.set(depth, visitor);
+        } else {
+            visitor.reset(provider);
+        }
+        return visitor;
+    }
+
+    /**
+     * Visitor of the elements of the array entered last, pooled like
+     * {@link #objectVisitor(SerializerProvider)}.
+     */
+    FieldDocumentationArrayVisitor arrayVisitor(SerializerProvider provider) {
+        int depth = types.size();
+        while (arrayVisitors.size() <= depth) {
+            arrayVisitors.add(null);
+        }
+        FieldDocumentationArrayVisitor visitor = arrayVisitors.get(depth);
+        if (visitor == null) {
+            visitor = new FieldDocumentationArrayVisitor(provider, this);
+            arrayVisitors.set(depth, visitor);
+        } else {
+            visitor.reset(provider);
+        }
+        return visitor;
+    }
+
+    /**
+     * JSON path of the value that is visited.
+     */
+    FieldPath getPath() {
+        return path;
+    }
+
+    /**
+     * Whether fields were left out because the depth or field budget was used up.
+     */
+    boolean isTruncated() {
+        return truncated;
     }
 
-    private String resolveComment(Class<?> javaFieldClass, String javaFieldName) {
-        String comment = javadocReader.resolveFieldComment(javaFieldClass, javaFieldName);
-        if (isBlank(comment)) {
-            // fallback if fieldName is getter method and comment is on the method itself
-            comment = javadocReader.resolveMethodComment(javaFieldClass, javaFieldName);
+    /**
+     * Marks the start of the subtree of a property, before it is entered.
+     */
+    Mark mark() {
+        Mark mark = new Mark(fields.size(), cuts, types.size(), deepest);
+        deepest = types.size();
+        return mark;
+    }
+
+    /**
+     * Remembers the fields documented since the given mark as the subtree of a property
+     * of the given type and serializer. Fields added for the property itself are
+     * remembered by JSON type only, as their comment depends on the property. Subtrees
+     * that were cut short depend on their position and are not remembered.
+     */
+    void memoizeSubtree(JavaType type, JsonSerializer<?> serializer, InternalFieldInfo info,
+            Mark mark) {
+        int height = deepest - mark.depth;
+        deepest = Math.max(deepest, mark.deepest);
+        if (cuts != mark.cuts) {
+            return;
+        }
+        int prefixLength = info.getJsonFieldPathLength();
+        List<SubtreeField> subtree = new ArrayList<>(fields.size() - mark.fields);
+        for (int i = mark.fields; i < fields.size(); i++) {
+            InternalFieldInfo fieldInfo = fieldInfos.get(i);
+            if (fieldInfo == info) {
+                subtree.add(new SubtreeField(null, null, null, jsonTypes.get(i)));
+            } else {
+                String suffix = fieldInfo.getJsonFieldPath().substring(prefixLength);
+                subtree.add(new SubtreeField(fields.get(i), fieldInfo, suffix, jsonTypes.get(i)));
+            }
         }
-        if (isBlank(comment) && isGetter(javaFieldName)) {
-            // fallback if fieldName is getter method but comment is on field itself
-            comment = javadocReader.resolveFieldComment(javaFieldClass, fromGetter(javaFieldName));
+        subtrees.put(new SubtreeKey(type, serializer, info.shouldExpand()),
+                new Subtree(subtree, height));
+    }
+
+    /**
+     * Documents a property from the memoized subtree of its type and serializer
+     * instead of visiting the serializer again.
+     *
+     * @return false if the subtree is not known yet
+     */
+    boolean replaySubtree(JavaType type, JsonSerializer<?> serializer, InternalFieldInfo info) {
+        Subtree subtree = subtrees.get(new SubtreeKey(type, serializer, info.shouldExpand()));
+        // a subtree that would exceed a budget here is visited again to be cut short
+        if (subtree == null || types.size() + subtree.height > maxDepth
+                || fields.size() + subtree.fields.size() > maxCount) {
+            return false;
+        }
+        for (SubtreeField field : subtree.fields) {
+            if (field.descriptor == null) {
+                addField(info, field.jsonType);
+            } else {
+                String fieldPath = info.getJsonFieldPath() + field.pathSuffix;
+                add(FieldDescriptorCache.copy(field.descriptor, fieldPath),
+                        new InternalFieldInfo(field.info.getJavaBaseClass(),
+                                field.info.getJavaFieldName(), fieldPath,
+                                field.info.shouldExpand()),
+                        field.jsonType);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a type whose serialization contributed to the fields, if recording.
+     */
+    public void addVisitedType(Class<?> type) {
+        if (recordedTypes != null) {
+            recordedTypes.add(type);
         }
-        return comment;
     }
 
-    private Attribute constraintAttribute(Class<?> javaBaseClass, String javaFieldName) {
+    /**
+     * Starts recording the field structure and visited types for the
+     * {@link PersistentFieldCache}.
+     */
+    void startRecording() {
+        recordedFields = new ArrayList<>();
+        recordedTypes = new LinkedHashSet<>();
+    }
+
+    List<CachedField> getRecordedFields() {
+        return recordedFields;
+    }
+
+    Set<Class<?>> getRecordedTypes() {
+        return recordedTypes;
+    }
+
+    private Attribute constraintAttribute(Class<?> javaBaseClass, String javaFieldName,
+            String getterField) {
         return new Attribute(CONSTRAINTS_ATTRIBUTE,
-                resolveConstraintDescriptions(javaBaseClass, javaFieldName));
+                resolveConstraintDescriptions(javaBaseClass, javaFieldName, getterField));
     }
 
-    private Attribute optionalAttribute(Class<?> javaBaseClass, String javaFieldName) {
+    private Attribute optionalAttribute(Class<?> javaBaseClass, String javaFieldName,
+            String getterField) {
         return new Attribute(OPTIONAL_ATTRIBUTE,
-                resolveOptionalMessages(javaBaseClass, javaFieldName));
+                resolveOptionalMessages(javaBaseClass, javaFieldName, getterField));
     }
 
     private List<String> resolveOptionalMessages(Class<?> javaBaseClass,
-            String javaFieldName) {
-        List<String> optionalMessages = new ArrayList<>();
-        optionalMessages.addAll(constraintReader.getOptionalMessages(javaBaseClass, javaFieldName));
+            String javaFieldName, String getterField) {
+        List<String> optionalMessages =
+                constraintReader.getOptionalMessages(javaBaseClass, javaFieldName);
 
         // fallback to field itself if we got a getter and no annotation on it
-        if (optionalMessages.isEmpty() && isGetter(javaFieldName)) {
-            optionalMessages.addAll(
-                    constraintReader.getOptionalMessages(javaBaseClass, fromGetter(javaFieldName)));
+        if (optionalMessages.isEmpty() && getterField != null) {
+            optionalMessages = constraintReader.getOptionalMessages(javaBaseClass, getterField);
         }
 
         // if there was no default constraint resolved at all, default to optional=true
+        if (optionalMessages.isEmpty()) {
+            return DEFAULT_OPTIONAL;
+        }
         if (!optionalMessages.contains("false")
                 && !optionalMessages.contains("true")) {
-            optionalMessages.add(0, "true");
+            List<String> withDefault = new ArrayList<>(optionalMessages.size() + 1);
+            withDefault.add("true");
+            withDefault.addAll(optionalMessages);
+            return withDefault;
         }
 
         return optionalMessages;
     }
 
     private List<String> resolveConstraintDescriptions(Class<?> javaBaseClass,
-            String javaFieldName) {
-        List<String> descriptions = new ArrayList<>();
-        descriptions.addAll(constraintReader.getConstraintMessages(javaBaseClass, javaFieldName));
+            String javaFieldName, String getterField) {
+        List<String> descriptions =
+                constraintReader.getConstraintMessages(javaBaseClass, javaFieldName);
 
         // fallback to field itself if we got a getter and no annotation on it
-        if (descriptions.isEmpty() && isGetter(javaFieldName)) {
-            descriptions.addAll(constraintReader
-                    .getConstraintMessages(javaBaseClass, fromGetter(javaFieldName)));
+        if (descriptions.isEmpty() && getterField != null) {
+            descriptions = constraintReader.getConstraintMessages(javaBaseClass, getterField);
         }
 
         return descriptions;
     }
+
+    static final class Mark {
+        private final int fields;
+        private final int cuts;
+        private final int depth;
+        private final int deepest;
+
+        Mark(int fields, int cuts, int depth, int deepest) {
+            this.fields = fields;
+            this.cuts = cuts;
+            this.depth = depth;
+            this.deepest = deepest;
+        }
+    }
+
+    private static final class Subtree {
+        private final List<SubtreeField> fields;
+        private final int height;
+
+        Subtree(List<SubtreeField> fields, int height) {
+            this.fields = fields;
+            this.height = height;
+        }
+    }
+
+    private static final class SubtreeKey {
+        private final JavaType type;
+        private final JsonSerializer<?> serializer;
+        private final boolean expand;
+
+        SubtreeKey(JavaType type, JsonSerializer<?> serializer, boolean expand) {
+            this.type = type;
+            this.serializer = serializer;
+            this.expand = expand;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SubtreeKey)) {
+                return false;
+            }
+            SubtreeKey other = (SubtreeKey) o;
+            return serializer == other.serializer && expand == other.expand
+                    && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type.hashCode();
+            result = 31 * result + System.identityHashCode(serializer);
+            return 31 * result + (expand ? 1 : 0);
+        }
+    }
+
+    private static final class SubtreeField {
+        private final FieldDescriptor descriptor;
+        private final InternalFieldInfo info;
+        private final String pathSuffix;
+        private final String jsonType;
+
+        SubtreeField(FieldDescriptor descriptor, InternalFieldInfo info, String pathSuffix,
+                String jsonType) {
+            this.descriptor = descriptor;
+            this.info = info;
+            this.pathSuffix = pathSuffix;
+            this.jsonType = jsonType;
+        }
+    }
 }
@@ -35,26 +35,31 @@ import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonStringFormatVisitor
 public class FieldDocumentationVisitorWrapper implements JsonFormatVisitorWrapper {
     private SerializerProvider provider;
     private final FieldDocumentationVisitorContext context;
-    private final String path;
-    private final InternalFieldInfo fieldInfo;
+    private InternalFieldInfo fieldInfo;
 
-    FieldDocumentationVisitorWrapper(FieldDocumentationVisitorContext context, String path,
+    FieldDocumentationVisitorWrapper(FieldDocumentationVisitorContext context,
             InternalFieldInfo fieldInfo) {
-        this(null, context, path, fieldInfo);
+        this(null, context, fieldInfo);
     }
 
     FieldDocumentationVisitorWrapper(SerializerProvider provider,
-            FieldDocumentationVisitorContext context, String path, InternalFieldInfo fieldInfo) {
+            FieldDocumentationVisitorContext context, InternalFieldInfo fieldInfo) {
         this.provider = provider;
         this.context = context;
-        this.path = path;
         this.fieldInfo = fieldInfo;
     }
 
     public static FieldDocumentationVisitorWrapper create(JavadocReader javadocReader,
             ConstraintReader constraintReader) {
         return new FieldDocumentationVisitorWrapper(
-                new FieldDocumentationVisitorContext(javadocReader, constraintReader), "", null);
+                new FieldDocumentationVisitorContext(javadocReader, constraintReader), null);
+    }
+
+    /**
+     * Prepares this wrapper for the next value, so that it can be reused.
+     */
+    void reset(InternalFieldInfo fieldInfo) {
+        this.fieldInfo = fieldInfo;
     }
 
     @Override
@@ -71,7 +76,7 @@ public class FieldDocumentationVisitorWrapper implements JsonFormatVisitorWrappe
     public JsonObjectFormatVisitor expectObjectFormat(JavaType type) throws JsonMappingException {
         addFieldIfPresent("Object");
         if (shouldExpand()) {
-            return new FieldDocumentationObjectVisitor(provider, context, path);
+            return context.objectVisitor(provider);
         } else {
             return new JsonObjectFormatVisitor.Base();
         }
@@ -81,7 +86,7 @@ public class FieldDocumentationVisitorWrapper implements JsonFormatVisitorWrappe
     public JsonArrayFormatVisitor expectArrayFormat(JavaType type) throws JsonMappingException {
         addFieldIfPresent("Array");
         if (shouldExpand()) {
-            return new FieldDocumentationArrayVisitor(provider, context, path);
+            return context.arrayVisitor(provider);
         } else {
             return new JsonArrayFormatVisitor.Base();
         }
@@ -140,6 +145,6 @@ public class FieldDocumentationVisitorWrapper implements JsonFormatVisitorWrappe
     }
 
     private boolean shouldExpand() {
-        return fieldInfo == null || fieldInfo.shouldExpand();
+        return (fieldInfo == null || fieldInfo.shouldExpand()) && context.mayExpand();
     }
 }
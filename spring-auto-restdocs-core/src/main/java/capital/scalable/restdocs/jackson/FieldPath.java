@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jackson;
+
+import java.util.Arrays;
+
+/**
+ * JSON path of the value that is visited, built as a stack of segments in a single
+ * buffer. One instance is reused for all fields of a documented type, so that only the
+ * paths of documented fields are turned into strings.
+ */
+class FieldPath {
+    private final StringBuilder path = new StringBuilder(64);
+    private int[] starts = new int[16];
+    private int depth;
+
+    /**
+     * Appends a property, e.g. {@code .name}.
+     */
+    void push(String name) {
+        mark();
+        if (path.length() > 0) {
+            path.append('.');
+        }
+        path.append(name);
+    }
+
+    /**
+     * Appends the elements of an array, {@code []}.
+     */
+    void pushArray() {
+        mark();
+        path.append("[]");
+    }
+
+    /**
+     * Removes the segment appended last.
+     */
+    void pop() {
+        path.setLength(starts[--depth]);
+    }
+
+    int length() {
+        return path.length();
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+
+    private void mark() {
+        if (depth == starts.length) {
+            starts = Arrays.copyOf(starts, depth * 2);
+        }
+        starts[depth++] = path.length();
+    }
+}
@@ -19,17 +19,32 @@ package capital.scalable.restdocs.jackson;
 class InternalFieldInfo {
     private final Class<?> javaBaseClass;
     private final String javaFieldName;
-    private final String jsonFieldPath;
+    private final FieldPath path;
+    private String jsonFieldPath;
     private final boolean shouldExpand;
 
     public InternalFieldInfo(Class<?> javaBaseClass, String javaFieldName,
             String jsonFieldPath, boolean shouldExpand) {
         this.javaBaseClass = javaBaseClass;
         this.javaFieldName = javaFieldName;
+        this.path = null;
         this.jsonFieldPath = jsonFieldPath;
         this.shouldExpand = shouldExpand;
     }
 
+    /**
+     * Info of the property at the current end of the given path. The path is only turned
+     * into a string once it is needed, e.g. when a field is documented, so it must not be
+     * used after the property is visited.
+     */
+    InternalFieldInfo(Class<?> javaBaseClass, String javaFieldName, FieldPath path,
+            boolean shouldExpand) {
+        this.javaBaseClass = javaBaseClass;
+        this.javaFieldName = javaFieldName;
+        this.path = path;
+        this.shouldExpand = shouldExpand;
+    }
+
     public Class<?> getJavaBaseClass() {
         return javaBaseClass;
     }
@@ -39,9 +54,16 @@ class InternalFieldInfo {
     }
 
     public String getJsonFieldPath() {
+        if (jsonFieldPath == null) {
+            jsonFieldPath = path.toString();
+        }
         return jsonFieldPath;
     }
 
+    int getJsonFieldPathLength() {
+        return jsonFieldPath != null ? jsonFieldPath.length() : path.length();
+    }
+
     public boolean shouldExpand() {
         return shouldExpand;
     }
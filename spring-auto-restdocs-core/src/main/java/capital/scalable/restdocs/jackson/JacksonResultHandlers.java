@@ -22,14 +22,20 @@ import static capital.scalable.restdocs.OperationAttributeHelper.setHandlerMetho
 import static capital.scalable.restdocs.OperationAttributeHelper.setJavadocReader;
 import static capital.scalable.restdocs.OperationAttributeHelper.setObjectMapper;
 
+import capital.scalable.restdocs.constraints.ConstraintReader;
 import capital.scalable.restdocs.constraints.ConstraintReaderImpl;
-import capital.scalable.restdocs.javadoc.JavadocReaderImpl;
+import capital.scalable.restdocs.javadoc.JavadocReaderRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultHandler;
 import org.springframework.web.method.HandlerMethod;
 
 public abstract class JacksonResultHandlers {
+    /**
+     * Shared by all requests, like the Javadoc reader, so that field descriptors cached
+     * by one request are found by the next, see {@link FieldDescriptorCache}.
+     */
+    private static final ConstraintReader constraintReader = new ConstraintReaderImpl();
 
     public static ResultHandler prepareJackson(ObjectMapper objectMapper) {
         return new JacksonPreparingResultHandler(objectMapper);
@@ -48,8 +54,8 @@ public abstract class JacksonResultHandlers {
             setHandlerMethod(result.getRequest(), (HandlerMethod) result.getHandler());
             setObjectMapper(result.getRequest(), objectMapper);
             initRequestPattern(result.getRequest());
-            setJavadocReader(result.getRequest(), new JavadocReaderImpl());
-            setConstraintReader(result.getRequest(), new ConstraintReaderImpl());
+            setJavadocReader(result.getRequest(), JavadocReaderRegistry.getJavadocReader());
+            setConstraintReader(result.getRequest(), constraintReader);
         }
     }
 }
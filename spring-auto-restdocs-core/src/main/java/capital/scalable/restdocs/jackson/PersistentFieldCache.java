@@ -0,0 +1,290 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jackson;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import capital.scalable.restdocs.cache.ClassHashes;
+import capital.scalable.restdocs.cache.DocumentationCache;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.cfg.SerializerFactoryConfig;
+import com.fasterxml.jackson.databind.ser.BasicSerializerFactory;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+import com.fasterxml.jackson.databind.ser.Serializers;
+
+/**
+ * Persists the field structure of types in the {@link DocumentationCache}, so that
+ * unchanged types do not have to be introspected by Jackson again.
+ * <p>
+ * Only the structure is stored: JSON path, JSON type, declaring class and field name.
+ * Comments and constraints are resolved again when an entry is used. Entries are
+ * keyed by the serialization configuration, the serializers and modifiers added by
+ * modules, the depth and field budgets and the type. They are only used if the bytecode
+ * of all classes and serializers that were visited, of all their superclasses and
+ * interfaces, their mix-ins and the custom serializers registered for them are unchanged.
+ * Supertypes are included even if they declare no documented field, as adding a
+ * property or a class-level Jackson annotation there changes the structure.
+ */
+class PersistentFieldCache {
+    private static final String CATEGORY = "fields";
+
+    private static final PersistentFieldCache instance =
+            new PersistentFieldCache(DocumentationCache.getInstance());
+
+    private final DocumentationCache cache;
+
+    PersistentFieldCache(DocumentationCache cache) {
+        this.cache = cache;
+    }
+
+    static PersistentFieldCache getInstance() {
+        return instance;
+    }
+
+    boolean isEnabled() {
+        return cache.isEnabled();
+    }
+
+    /**
+     * Fields of the given type, or null if there is no valid entry.
+     */
+    List<CachedField> get(ObjectMapper mapper, JavaType type, int maxDepth, int maxCount) {
+        String key = key(mapper, type, maxDepth, maxCount);
+        Entry entry = cache.read(CATEGORY, ClassHashes.sha1(key), Entry.class);
+        if (entry == null || !key.equals(entry.key)) {
+            return null;
+        }
+
+        ClassLoader classLoader = classLoader(type);
+        for (Map.Entry<String, String> dependency : entry.dependencies.entrySet()) {
+            Class<?> clazz = loadClass(dependency.getKey(), classLoader);
+            if (clazz == null
+                    || !dependency.getValue().equals(dependencyHash(mapper, clazz))) {
+                return null;
+            }
+        }
+        for (CachedField field : entry.fields) {
+            field.javaBaseClass = loadClass(field.className, classLoader);
+            if (field.javaBaseClass == null) {
+                return null;
+            }
+        }
+        return entry.fields;
+    }
+
+    void put(ObjectMapper mapper, JavaType type, int maxDepth, int maxCount,
+            List<CachedField> fields, Collection<Class<?>> dependencies) {
+        Entry entry = new Entry();
+        entry.key = key(mapper, type, maxDepth, maxCount);
+        entry.fields = fields;
+        for (Class<?> dependency : withSupertypes(dependencies)) {
+            String hash = dependencyHash(mapper, dependency);
+            if (hash == null) {
+                // without a hash, the entry could never be validated
+                return;
+            }
+            entry.dependencies.put(dependency.getName(), hash);
+        }
+        cache.write(CATEGORY, ClassHashes.sha1(entry.key), entry);
+    }
+
+    private static String key(ObjectMapper mapper, JavaType type, int maxDepth,
+            int maxCount) {
+        return fingerprint(mapper) + "|depth=" + maxDepth + ";count=" + maxCount
+                + "|" + type.toCanonical();
+    }
+
+    /**
+     * The given classes with all their superclasses and interfaces, except {@link Object}.
+     */
+    private static Set<Class<?>> withSupertypes(Collection<Class<?>> classes) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>(classes);
+        while (!queue.isEmpty()) {
+            Class<?> clazz = queue.poll();
+            if (clazz == Object.class || !result.add(clazz)) {
+                continue;
+            }
+            if (clazz.getSuperclass() != null) {
+                queue.add(clazz.getSuperclass());
+            }
+            Collections.addAll(queue, clazz.getInterfaces());
+        }
+        return result;
+    }
+
+    private static String fingerprint(ObjectMapper mapper) {
+        SerializationConfig config = mapper.getSerializationConfig();
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(config.getSerializationFeatures()).append(';');
+        for (MapperFeature feature : MapperFeature.values()) {
+            fingerprint.append(config.isEnabled(feature) ? '1' : '0');
+        }
+        fingerprint.append(';').append(config.getDefaultPropertyInclusion());
+        fingerprint.append(';').append(config.getDefaultVisibilityChecker());
+        fingerprint.append(';').append(config.mixInCount());
+        fingerprint.append(';').append(config.getActiveView());
+        if (config.getPropertyNamingStrategy() != null) {
+            fingerprint.append(';').append(config.getPropertyNamingStrategy().getClass());
+        }
+        for (AnnotationIntrospector introspector
+                : config.getAnnotationIntrospector().allIntrospectors()) {
+            fingerprint.append(';').append(introspector.getClass().getName());
+        }
+        appendClass(fingerprint, config.getFilterProvider());
+        appendClass(fingerprint, config.getTypeFactory());
+        SerializerFactory serializerFactory = mapper.getSerializerFactory();
+        appendClass(fingerprint, serializerFactory);
+        if (serializerFactory instanceof BasicSerializerFactory) {
+            // added by modules, their content is checked per class, see dependencyHash
+            SerializerFactoryConfig factoryConfig =
+                    ((BasicSerializerFactory) serializerFactory).getFactoryConfig();
+            for (Serializers serializers : factoryConfig.serializers()) {
+                appendClass(fingerprint, serializers);
+            }
+            for (Serializers serializers : factoryConfig.keySerializers()) {
+                appendClass(fingerprint, serializers);
+            }
+            for (BeanSerializerModifier modifier : factoryConfig.serializerModifiers()) {
+                appendClass(fingerprint, modifier);
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Bytecode hash of the given class, its mix-in and the custom serializer registered
+     * for it. Returns null if any bytecode can not be read.
+     */
+    private static String dependencyHash(ObjectMapper mapper, Class<?> dependency) {
+        String hash = ClassHashes.hash(dependency);
+        if (hash == null) {
+            return null;
+        }
+        StringBuilder dependencyHash = new StringBuilder(hash);
+        SerializationConfig config = mapper.getSerializationConfig();
+        Class<?> mixIn = config.findMixInClassFor(dependency);
+        if (mixIn != null) {
+            String mixInHash = ClassHashes.hash(mixIn);
+            if (mixInHash == null) {
+                return null;
+            }
+            dependencyHash.append(";mixin=").append(mixIn.getName()).append('@')
+                    .append(mixInHash);
+        }
+        Class<?> serializer;
+        try {
+            serializer = customSerializer(mapper, dependency);
+        } catch (RuntimeException e) {
+            // the serializer could never be validated
+            return null;
+        }
+        if (serializer != null) {
+            String serializerHash = ClassHashes.hash(serializer);
+            if (serializerHash == null) {
+                return null;
+            }
+            dependencyHash.append(";serializer=").append(serializer.getName()).append('@')
+                    .append(serializerHash);
+        }
+        return dependencyHash.toString();
+    }
+
+    private static Class<?> customSerializer(ObjectMapper mapper, Class<?> dependency) {
+        if (!(mapper.getSerializerFactory() instanceof BasicSerializerFactory)) {
+            return null;
+        }
+        SerializationConfig config = mapper.getSerializationConfig();
+        SerializerFactoryConfig factoryConfig =
+                ((BasicSerializerFactory) mapper.getSerializerFactory()).getFactoryConfig();
+        for (Serializers serializers : factoryConfig.serializers()) {
+            // lookups of modules like SimpleModule only depend on the type
+            JsonSerializer<?> serializer =
+                    serializers.findSerializer(config, config.constructType(dependency), null);
+            if (serializer != null) {
+                return serializer.getClass();
+            }
+        }
+        return null;
+    }
+
+    private static void appendClass(StringBuilder fingerprint, Object value) {
+        fingerprint.append(';').append(value != null ? value.getClass().getName() : null);
+    }
+
+    private static ClassLoader classLoader(JavaType type) {
+        ClassLoader classLoader = type.getRawClass().getClassLoader();
+        return classLoader != null ? classLoader : PersistentFieldCache.class.getClassLoader();
+    }
+
+    private static Class<?> loadClass(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    static class CachedField {
+        private String path;
+        private String jsonType;
+        private String className;
+        private String fieldName;
+        private transient Class<?> javaBaseClass;
+
+        CachedField() {
+            // for Jackson
+        }
+
+        CachedField(InternalFieldInfo info, String jsonType) {
+            this.path = info.getJsonFieldPath();
+            this.jsonType = jsonType;
+            this.className = info.getJavaBaseClass().getName();
+            this.fieldName = info.getJavaFieldName();
+            this.javaBaseClass = info.getJavaBaseClass();
+        }
+
+        InternalFieldInfo toFieldInfo() {
+            return new InternalFieldInfo(javaBaseClass, fieldName, path, true);
+        }
+
+        String getJsonType() {
+            return jsonType;
+        }
+    }
+
+    static class Entry {
+        private String key;
+        private Map<String, String> dependencies = new TreeMap<>();
+        private List<CachedField> fields = new ArrayList<>();
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static capital.scalable.restdocs.util.FieldUtil.fromGetter;
+import static capital.scalable.restdocs.util.FieldUtil.isGetter;
+import static org.springframework.util.StringUtils.hasText;
+import static org.springframework.util.StringUtils.tokenizeToStringArray;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Base class of Javadoc readers that caches the Javadoc of each class after the
+ * first lookup.
+ * <p>
+ * Classes in excluded packages, e.g. JDK and library types, are never looked up.
+ * The packages can be configured as comma separated list of prefixes in the system
+ * property {@code org.springframework.restdocs.javadocExcludedPackages}.
+ * <p>
+ * Comments are inherited: if a member is not documented on the given class, its
+ * superclasses and interfaces are searched. The effective comment of each member
+ * is memoized with the Javadoc of its class and evicted together with it, so that
+ * the hierarchy is walked only once per member. Javadoc written by
+ * the doclet with {@code -flatten} already contains the inherited comments, and the
+ * supertypes it lists as inherited are not read at all. Supertypes from other modules or
+ * libraries are not listed and still read from their own Javadoc.
+ */
+public abstract class AbstractJavadocReader implements JavadocReader {
+    static final ObjectReader CLASS_JAVADOC_READER = classJavadocReader();
+    static final String EXCLUDED_PACKAGES_PROPERTY =
+            "org.springframework.restdocs.javadocExcludedPackages";
+    static final String DEFAULT_EXCLUDED_PACKAGES = "java.,javax.,jdk.,sun.,com.sun.,"
+            + "com.fasterxml.jackson.,org.springframework.,org.hibernate.,org.joda.time.";
+
+    private final ClassJavadocCache classCache;
+    private final String[] excludedPackages;
+    private final JavadocReaderStats stats = new JavadocReaderStats();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    protected AbstractJavadocReader() {
+        this(ClassJavadocCache.fromSystemProperties(), systemPropertyExcludedPackages());
+    }
+
+    AbstractJavadocReader(ClassJavadocCache classCache, String[] excludedPackages) {
+        this.classCache = classCache;
+        this.excludedPackages = excludedPackages;
+    }
+
+    /**
+     * The given reader, or an adapter if it is not an {@link AbstractJavadocReader},
+     * so that {@link #resolvePropertyComment(Class, String)} can be used for any reader.
+     */
+    public static AbstractJavadocReader of(JavadocReader javadocReader) {
+        if (javadocReader instanceof AbstractJavadocReader) {
+            return (AbstractJavadocReader) javadocReader;
+        }
+        return new DelegatingJavadocReader(javadocReader);
+    }
+
+    /**
+     * Loads the Javadoc of the given class. Never returns null, but
+     * {@link ClassJavadoc#EMPTY} if no Javadoc is found.
+     */
+    protected abstract ClassJavadoc loadClass(Class<?> clazz, String className);
+
+    /**
+     * Parses Javadoc JSON read by {@link #loadClass(Class, String)}. Javadoc written
+     * by the doclet in the binary Smile format is detected by its header.
+     */
+    protected ClassJavadoc parse(byte[] json) throws IOException {
+        long start = System.nanoTime();
+        ClassJavadoc classJavadoc = isSmile(json)
+                ? SmileJavadocReader.read(json)
+                : CLASS_JAVADOC_READER.<ClassJavadoc>readValue(json);
+        stats.fileParsed(json.length, System.nanoTime() - start);
+        return classJavadoc;
+    }
+
+    /**
+     * Drops the Javadoc of the given class, e.g. after its JSON file changed.
+     * Memoized comments may come from any class in a hierarchy and are all dropped.
+     */
+    void invalidate(String className) {
+        invalidations.incrementAndGet();
+        classCache.remove(className);
+        classCache.clearResolved();
+    }
+
+    /**
+     * Drops the Javadoc of all classes.
+     */
+    void invalidateAll() {
+        invalidations.incrementAndGet();
+        classCache.clear();
+    }
+
+    /**
+     * Number of times Javadoc was dropped by this reader.
+     */
+    long modificationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * Counters and timers of this reader.
+     */
+    public JavadocReaderStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Loads and caches the Javadoc of the given class, e.g. to preload it.
+     */
+    void load(Class<?> clazz) {
+        getClass(clazz);
+    }
+
+    /**
+     * Whether the given class can have Javadoc, i.e. it is neither primitive, an array,
+     * anonymous or local nor in an excluded package.
+     */
+    boolean isDocumentable(Class<?> clazz) {
+        return cacheKey(clazz) != null;
+    }
+
+    ClassJavadoc getClass(Class<?> clazz) {
+        String className = cacheKey(clazz);
+        if (className == null) {
+            return ClassJavadoc.EMPTY;
+        }
+
+        ClassJavadoc classJavadoc = classCache.get(className);
+        if (classJavadoc != null) {
+            stats.cacheHit();
+            return classJavadoc;
+        }
+
+        long generation = invalidations.get();
+        long start = System.nanoTime();
+        classJavadoc = loadClass(clazz, className);
+        stats.classLoaded(System.nanoTime() - start, classJavadoc != ClassJavadoc.EMPTY);
+        // a file read while it changed is not cached
+        if (invalidations.get() == generation) {
+            classCache.put(className, classJavadoc);
+        }
+        return classJavadoc;
+    }
+
+    @Override
+    public String resolveFieldComment(Class<?> javaBaseClass, String javaFieldName) {
+        return resolve(javaBaseClass, new MemberKey(MemberKey.FIELD, javaFieldName, null));
+    }
+
+    /**
+     * Comment of a Jackson property, given the name of its field or getter. The comment
+     * of the field is used for its getter and vice versa. Memoized like all other
+     * comments, so that documenting a field is a single lookup.
+     */
+    public String resolvePropertyComment(Class<?> javaBaseClass, String javaFieldName) {
+        return resolve(javaBaseClass, new MemberKey(MemberKey.PROPERTY, javaFieldName, null));
+    }
+
+    @Override
+    public String resolveMethodComment(Class<?> javaBaseClass, String javaMethodName) {
+        return resolve(javaBaseClass, new MemberKey(MemberKey.METHOD, javaMethodName, null));
+    }
+
+    @Override
+    public String resolveMethodParameterComment(Class<?> javaBaseClass, String javaMethodName,
+            String javaParameterName) {
+        return resolve(javaBaseClass,
+                new MemberKey(MemberKey.PARAMETER, javaMethodName, javaParameterName));
+    }
+
+    private String resolve(Class<?> javaBaseClass, MemberKey key) {
+        String className = cacheKey(javaBaseClass);
+        if (className != null) {
+            String comment = classCache.getResolved(className, key);
+            if (comment != null) {
+                return comment;
+            }
+        }
+
+        long generation = invalidations.get();
+        String comment = "";
+        List<ClassJavadoc> flattened = null;
+        for (Class<?> type : hierarchy(javaBaseClass)) {
+            if (isInherited(flattened, type)) {
+                continue;
+            }
+            ClassJavadoc classJavadoc = getClass(type);
+            comment = key.comment(classJavadoc);
+            if (hasText(comment)) {
+                break;
+            }
+            if (classJavadoc.isFlattened()) {
+                if (flattened == null) {
+                    flattened = new ArrayList<>(2);
+                }
+                flattened.add(classJavadoc);
+            }
+        }
+        if (className != null && invalidations.get() == generation) {
+            classCache.putResolved(className, key, comment);
+        }
+        return comment;
+    }
+
+    /**
+     * Whether the comments of the given supertype are already included in the Javadoc
+     * of a flattened subtype that was looked at.
+     */
+    private static boolean isInherited(List<ClassJavadoc> flattened, Class<?> type) {
+        if (flattened != null) {
+            String className = type.getCanonicalName();
+            for (ClassJavadoc classJavadoc : flattened) {
+                if (classJavadoc.isInherited(className)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The given class followed by its superclasses and then all interfaces,
+     * breadth first. {@link Object} is never part of the hierarchy.
+     */
+    List<Class<?>> hierarchy(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        for (Class<?> type = clazz; type != null && type != Object.class;
+                type = type.getSuperclass()) {
+            types.add(type);
+            Collections.addAll(interfaces, type.getInterfaces());
+        }
+        while (!interfaces.isEmpty()) {
+            Class<?> type = interfaces.poll();
+            if (types.add(type)) {
+                Collections.addAll(interfaces, type.getInterfaces());
+            }
+        }
+        return new ArrayList<>(types);
+    }
+
+    /**
+     * Name of the given class in the cache, or null if it is never documented.
+     */
+    private String cacheKey(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.isArray() || isExcluded(clazz.getName())) {
+            return null;
+        }
+        // null for anonymous and local classes
+        return clazz.getCanonicalName();
+    }
+
+    private boolean isExcluded(String className) {
+        for (String excludedPackage : excludedPackages) {
+            if (className.startsWith(excludedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] systemPropertyExcludedPackages() {
+        String excludedPackages = System.getProperties().getProperty(
+                EXCLUDED_PACKAGES_PROPERTY, DEFAULT_EXCLUDED_PACKAGES);
+        return tokenizeToStringArray(excludedPackages, ",");
+    }
+
+    private static ObjectReader classJavadocReader() {
+        return classJavadocReader(new ObjectMapper());
+    }
+
+    static ObjectReader classJavadocReader(ObjectMapper mapper) {
+        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        return mapper.readerFor(ClassJavadoc.class);
+    }
+
+    private static boolean isSmile(byte[] content) {
+        return content.length >= 3 && content[0] == ':' && content[1] == ')'
+                && content[2] == '\n';
+    }
+
+    /**
+     * Adapter for readers of other libraries. Their comments are neither cached nor
+     * memoized, and property comments are resolved by looking up the field, the method
+     * and the field of a getter in turn.
+     */
+    private static final class DelegatingJavadocReader extends AbstractJavadocReader {
+        private final JavadocReader delegate;
+
+        DelegatingJavadocReader(JavadocReader delegate) {
+            super(new ClassJavadocCache(0), new String[0]);
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected ClassJavadoc loadClass(Class<?> clazz, String className) {
+            return ClassJavadoc.EMPTY;
+        }
+
+        @Override
+        public String resolveFieldComment(Class<?> javaBaseClass, String javaFieldName) {
+            return delegate.resolveFieldComment(javaBaseClass, javaFieldName);
+        }
+
+        @Override
+        public String resolvePropertyComment(Class<?> javaBaseClass, String javaFieldName) {
+            String comment = delegate.resolveFieldComment(javaBaseClass, javaFieldName);
+            if (!hasText(comment)) {
+                // fallback if fieldName is getter method and comment is on the method itself
+                comment = delegate.resolveMethodComment(javaBaseClass, javaFieldName);
+            }
+            if (!hasText(comment) && isGetter(javaFieldName)) {
+                // fallback if fieldName is getter method but comment is on field itself
+                comment = delegate.resolveFieldComment(javaBaseClass, fromGetter(javaFieldName));
+            }
+            return comment;
+        }
+
+        @Override
+        public String resolveMethodComment(Class<?> javaBaseClass, String javaMethodName) {
+            return delegate.resolveMethodComment(javaBaseClass, javaMethodName);
+        }
+
+        @Override
+        public String resolveMethodParameterComment(Class<?> javaBaseClass,
+                String javaMethodName, String javaParameterName) {
+            return delegate.resolveMethodParameterComment(javaBaseClass, javaMethodName,
+                    javaParameterName);
+        }
+    }
+
+    private static final class MemberKey {
+        static final int FIELD = 0;
+        static final int PROPERTY = 1;
+        static final int METHOD = 2;
+        static final int PARAMETER = 3;
+
+        private final int kind;
+        private final String member;
+        private final String parameter;
+
+        MemberKey(int kind, String member, String parameter) {
+            this.kind = kind;
+            this.member = member;
+            this.parameter = parameter;
+        }
+
+        String comment(ClassJavadoc classJavadoc) {
+            switch (kind) {
+                case FIELD:
+                    return classJavadoc.getFieldComment(member);
+                case PROPERTY:
+                    return classJavadoc.getPropertyComment(member);
+                case METHOD:
+                    return classJavadoc.getMethodComment(member);
+                default:
+                    return classJavadoc.getMethodParameterComment(member, parameter);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MemberKey)) {
+                return false;
+            }
+            MemberKey other = (MemberKey) o;
+            return kind == other.kind && member.equals(other.member)
+                    && (parameter == null ? other.parameter == null
+                    : parameter.equals(other.parameter));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = kind;
+            result = 31 * result + member.hashCode();
+            result = 31 * result + (parameter != null ? parameter.hashCode() : 0);
+            return result;
+        }
+    }
+}
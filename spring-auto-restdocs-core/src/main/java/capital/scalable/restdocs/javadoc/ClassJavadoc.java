@@ -16,15 +16,68 @@
 
 package capital.scalable.restdocs.javadoc;
 
+import static org.apache.commons.lang3.StringUtils.capitalize;
 import static org.springframework.util.StringUtils.hasText;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Javadoc of a class. Immutable and compact: comments are deduplicated across all
+ * classes and held in sorted arrays instead of hash maps, as thousands of
+ * instances are kept in memory.
+ */
 class ClassJavadoc {
-    private String comment;
-    private Map<String, String> fields = new HashMap<>();
-    private Map<String, MethodJavadoc> methods = new HashMap<>();
+    private static final StringDeduplicator strings = new StringDeduplicator();
+
+    /**
+     * Shared instance for classes without Javadoc.
+     */
+    static final ClassJavadoc EMPTY = new ClassJavadoc(null, null, null, false, null);
+    private static final String[] NO_TYPES = new String[0];
+
+    private final String comment;
+    private final SortedArrayMap<String> fields;
+    private final SortedArrayMap<MethodJavadoc> methods;
+    private final SortedArrayMap<String> properties;
+    private final boolean flattened;
+    private final String[] inherited;
+
+    @JsonCreator
+    ClassJavadoc(@JsonProperty("comment") String comment,
+            @JsonProperty("fields") Map<String, String> fields,
+            @JsonProperty("methods") Map<String, MethodJavadoc> methods,
+            @JsonProperty("flattened") boolean flattened,
+            @JsonProperty("inherited") List<String> inherited) {
+        this.comment = strings.deduplicate(comment);
+        this.fields = SortedArrayMap.of(comments(fields));
+        this.methods = SortedArrayMap.of(methods);
+        this.properties = SortedArrayMap.of(propertyComments(this.fields, this.methods));
+        this.flattened = flattened;
+        this.inherited = sortedTypes(inherited);
+    }
+
+    /**
+     * Whether the doclet included the comments of superclasses and interfaces,
+     * see {@link #isInherited(String)}.
+     */
+    public boolean isFlattened() {
+        return flattened;
+    }
+
+    /**
+     * Whether the doclet included the comments of the given supertype, so that it
+     * need not be looked at. Only supertypes documented in the same doclet run are
+     * included, not e.g. those of another module or a library.
+     */
+    public boolean isInherited(String className) {
+        return className != null && Arrays.binarySearch(inherited, className) >= 0;
+    }
 
     public String getClassComment() {
         return comment;
@@ -34,6 +87,14 @@ class ClassJavadoc {
         return trimToEmpty(fields.get(fieldName));
     }
 
+    /**
+     * Comment of a Jackson property by field or getter name. Falls back from field to
+     * getter comment and from getter to field comment with a single lookup.
+     */
+    public String getPropertyComment(String fieldOrGetterName) {
+        return trimToEmpty(properties.get(fieldOrGetterName));
+    }
+
     public String getMethodComment(String methodName) {
         MethodJavadoc methodJavadoc = methods.get(methodName);
         if (methodJavadoc != null) {
@@ -52,13 +113,88 @@ class ClassJavadoc {
         }
     }
 
+    /**
+     * Number of comments held by this instance, at least one.
+     */
+    int weight() {
+        int weight = 1 + fields.size();
+        for (int i = 0; i < methods.size(); i++) {
+            weight += 1 + methods.valueAt(i).parameters.size();
+        }
+        return weight;
+    }
+
+    /**
+     * Table of property names, i.e. field, getter and is-getter names, to comments.
+     * Field comments win over method comments for field names, method comments win
+     * for getter names.
+     */
+    private static Map<String, String> propertyComments(SortedArrayMap<String> fields,
+            SortedArrayMap<MethodJavadoc> methods) {
+        if (fields.size() == 0 && methods.size() == 0) {
+            return null;
+        }
+        Map<String, String> properties = new HashMap<>();
+        // lowest precedence first: field comment for its getters,
+        // getter names are deduplicated as the same field names occur in many classes
+        for (int i = 0; i < fields.size(); i++) {
+            String capitalized = capitalize(fields.keyAt(i));
+            properties.put(strings.deduplicate("get" + capitalized), fields.valueAt(i));
+            properties.put(strings.deduplicate("is" + capitalized), fields.valueAt(i));
+        }
+        for (int i = 0; i < methods.size(); i++) {
+            if (hasText(methods.valueAt(i).comment)) {
+                properties.put(methods.keyAt(i), methods.valueAt(i).comment);
+            }
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            properties.put(fields.keyAt(i), fields.valueAt(i));
+        }
+        return properties;
+    }
+
+    /**
+     * Deduplicated comments without blank ones, which are never returned anyway.
+     */
+    private static Map<String, String> comments(Map<String, String> comments) {
+        if (comments == null || comments.isEmpty()) {
+            return comments;
+        }
+        Map<String, String> result = new HashMap<>();
+        for (Map.Entry<String, String> entry : comments.entrySet()) {
+            if (hasText(entry.getValue())) {
+                result.put(entry.getKey(), strings.deduplicate(entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private static String[] sortedTypes(List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return NO_TYPES;
+        }
+        String[] result = new String[types.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = strings.deduplicate(types.get(i));
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
     private static String trimToEmpty(String value) {
         return hasText(value) ? value : "";
     }
 
     static class MethodJavadoc {
-        private String comment;
-        private Map<String, String> parameters = new HashMap<>();
+        private final String comment;
+        private final SortedArrayMap<String> parameters;
+
+        @JsonCreator
+        MethodJavadoc(@JsonProperty("comment") String comment,
+                @JsonProperty("parameters") Map<String, String> parameters) {
+            this.comment = strings.deduplicate(comment);
+            this.parameters = SortedArrayMap.of(comments(parameters));
+        }
 
         public String getComment() {
             return trimToEmpty(comment);
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of {@link ClassJavadoc} bounded by weight.
+ * <p>
+ * The weight of an entry is the number of comments it holds, so that the limit
+ * roughly follows the memory used by the cache. Misses are cached with the
+ * shared {@link ClassJavadoc#EMPTY} instance and weigh one. The effective
+ * comments resolved for the members of a class, e.g. inherited ones, are kept
+ * with its entry, weigh one each and are evicted together with it.
+ * <p>
+ * The cache is split into segments by class name, each with its own lock and an
+ * equal share of the weight, so that concurrent lookups rarely wait for each other.
+ */
+class ClassJavadocCache {
+    static final String MAX_WEIGHT_PROPERTY = "org.springframework.restdocs.javadocCacheMaxWeight";
+    static final long DEFAULT_MAX_WEIGHT = 100000;
+    static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment[] segments;
+
+    ClassJavadocCache(long maxWeight) {
+        this(maxWeight, 1);
+    }
+
+    ClassJavadocCache(long maxWeight, int segmentCount) {
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxWeight / segmentCount);
+        }
+    }
+
+    static ClassJavadocCache fromSystemProperties() {
+        String maxWeight = System.getProperties().getProperty(MAX_WEIGHT_PROPERTY);
+        if (maxWeight != null && !maxWeight.trim().isEmpty()) {
+            return new ClassJavadocCache(Long.parseLong(maxWeight.trim()), DEFAULT_SEGMENTS);
+        }
+        return new ClassJavadocCache(DEFAULT_MAX_WEIGHT, DEFAULT_SEGMENTS);
+    }
+
+    ClassJavadoc get(String className) {
+        return segment(className).get(className);
+    }
+
+    void put(String className, ClassJavadoc javadoc) {
+        segment(className).put(className, javadoc);
+    }
+
+    /**
+     * Effective comment of a member of the given class, or null if it was not
+     * resolved yet or the class is not cached.
+     */
+    String getResolved(String className, Object member) {
+        return segment(className).getResolved(className, member);
+    }
+
+    /**
+     * Keeps the effective comment of a member with the entry of the given class.
+     * Nothing is kept if the class is not cached.
+     */
+    void putResolved(String className, Object member, String comment) {
+        segment(className).putResolved(className, member, comment);
+    }
+
+    void remove(String className) {
+        segment(className).remove(className);
+    }
+
+    /**
+     * Drops the effective comments of all classes, but keeps their Javadoc.
+     */
+    void clearResolved() {
+        for (Segment segment : segments) {
+            segment.clearResolved();
+        }
+    }
+
+    void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    long weight() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    private Segment segment(String className) {
+        int hash = className.hashCode();
+        hash ^= hash >>> 16;
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static class Segment {
+        private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maxWeight;
+        private long weight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized ClassJavadoc get(String className) {
+            Entry entry = entries.get(className);
+            return entry != null ? entry.javadoc : null;
+        }
+
+        synchronized void put(String className, ClassJavadoc javadoc) {
+            Entry entry = new Entry(javadoc);
+            Entry previous = entries.put(className, entry);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += entry.weight;
+            evict();
+        }
+
+        synchronized String getResolved(String className, Object member) {
+            Entry entry = entries.get(className);
+            return entry != null && entry.resolved != null ? entry.resolved.get(member) : null;
+        }
+
+        synchronized void putResolved(String className, Object member, String comment) {
+            Entry entry = entries.get(className);
+            if (entry == null) {
+                return;
+            }
+            if (entry.resolved == null) {
+                entry.resolved = new HashMap<>();
+            }
+            if (entry.resolved.put(member, comment) == null) {
+                entry.weight++;
+                weight++;
+                evict();
+            }
+        }
+
+        synchronized void remove(String className) {
+            Entry entry = entries.remove(className);
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+        }
+
+        synchronized void clearResolved() {
+            for (Entry entry : entries.values()) {
+                if (entry.resolved != null) {
+                    entry.weight -= entry.resolved.size();
+                    weight -= entry.resolved.size();
+                    entry.resolved = null;
+                }
+            }
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+
+        private void evict() {
+            Iterator<Entry> iterator = entries.values().iterator();
+            // the most recently used entry is always kept
+            while (weight > maxWeight && entries.size() > 1) {
+                Entry eldest = iterator.next();
+                iterator.remove();
+                weight -= eldest.weight;
+            }
+        }
+    }
+
+    private static class Entry {
+        private final ClassJavadoc javadoc;
+        private int weight;
+        private Map<Object, String> resolved;
+
+        Entry(ClassJavadoc javadoc) {
+            this.javadoc = javadoc;
+            this.weight = javadoc.weight();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static capital.scalable.restdocs.javadoc.JavadocSources.JSON_SUFFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import capital.scalable.restdocs.javadoc.JavadocSources.JavadocSource;
+import capital.scalable.restdocs.javadoc.JavadocSources.ZipSource;
+import org.slf4j.Logger;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Reads Javadoc JSON files from the classpath, e.g. from JARs of dependencies.
+ * <p>
+ * All JSON files below the given location are indexed once when the reader is
+ * created. Lookups then go straight to the file or zip entry without scanning
+ * the classpath again. If a class is found more than once, the first location
+ * on the classpath wins.
+ * <p>
+ * JARs containing Javadoc JSON are kept open until the reader is closed.
+ */
+public class ClasspathJavadocReader extends AbstractJavadocReader implements Closeable {
+    public static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final Logger log = getLogger(JavadocReader.class);
+
+    private final String location;
+    private final Map<String, JavadocSource> index = new HashMap<>();
+    private final Map<File, ZipFile> jars = new LinkedHashMap<>();
+
+    public ClasspathJavadocReader(String location) {
+        this(location, defaultClassLoader());
+    }
+
+    public ClasspathJavadocReader(String location, ClassLoader classLoader) {
+        this.location = normalize(location);
+        try {
+            Enumeration<URL> roots = classLoader.getResources(this.location);
+            while (roots.hasMoreElements()) {
+                indexRoot(roots.nextElement());
+            }
+        } catch (IOException e) {
+            log.error("Problem indexing classpath location {}", this.location, e);
+        }
+    }
+
+    /**
+     * Javadoc JSON of all indexed classes by class name.
+     */
+    Map<String, JavadocSource> getSources() {
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * JARs kept open because they contain Javadoc JSON.
+     */
+    Collection<ZipFile> getOpenJars() {
+        return Collections.unmodifiableCollection(jars.values());
+    }
+
+    /**
+     * Closes all JARs. Javadoc already read stays cached.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (ZipFile jar : jars.values()) {
+            try {
+                jar.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        jars.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    protected ClassJavadoc loadClass(Class<?> clazz, String className) {
+        JavadocSource source = index.get(className);
+        if (source == null) {
+            log.warn("No Javadoc found for {} at classpath:{}", className, location);
+            return ClassJavadoc.EMPTY;
+        }
+
+        try (InputStream in = source.open()) {
+            return parse(StreamUtils.copyToByteArray(in));
+        } catch (IOException e) {
+            log.error("Problem reading {}", source, e);
+            return ClassJavadoc.EMPTY;
+        }
+    }
+
+    private void indexRoot(URL root) throws IOException {
+        URLConnection connection = root.openConnection();
+        if (connection instanceof JarURLConnection) {
+            JarURLConnection jarConnection = (JarURLConnection) connection;
+            jarConnection.setUseCaches(false);
+            indexJar(new File(toPath(jarConnection.getJarFileURL())));
+        } else if ("file".equals(root.getProtocol())) {
+            JavadocSources.addDirectory(new File(toPath(root)).toPath(), index);
+        } else {
+            log.warn("Unsupported classpath location {}", root);
+        }
+    }
+
+    private void indexJar(File file) throws IOException {
+        if (jars.containsKey(file)) {
+            // same JAR listed twice on the classpath
+            return;
+        }
+        ZipFile zipFile = new ZipFile(file);
+        if (indexZip(zipFile)) {
+            jars.put(file, zipFile);
+        } else {
+            zipFile.close();
+        }
+    }
+
+    private boolean indexZip(ZipFile zipFile) {
+        String prefix = location.isEmpty() ? "" : location + "/";
+        boolean found = false;
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+            if (!entry.isDirectory() && name.startsWith(prefix) && name.endsWith(JSON_SUFFIX)) {
+                JavadocSources.add(index, name.substring(prefix.length()),
+                        new ZipSource(zipFile, entry));
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private static String toPath(URL url) {
+        try {
+            return url.toURI().getPath();
+        } catch (URISyntaxException e) {
+            return url.getPath();
+        }
+    }
+
+    private static String normalize(String location) {
+        String normalized = location.trim();
+        if (normalized.startsWith(CLASSPATH_PREFIX)) {
+            normalized = normalized.substring(CLASSPATH_PREFIX.length());
+        }
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private static ClassLoader defaultClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : ClasspathJavadocReader.class.getClassLoader();
+    }
+}
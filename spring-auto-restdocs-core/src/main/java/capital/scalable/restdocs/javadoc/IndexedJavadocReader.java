@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import capital.scalable.restdocs.javadoc.JavadocSources.JavadocSource;
+import org.slf4j.Logger;
+
+/**
+ * Reads Javadoc from the single index file written by the doclet with the
+ * {@code -singlefileindex} option.
+ * <p>
+ * The file is memory-mapped and only the entry table is decoded up front.
+ * The Javadoc of a class is decoded on its first lookup.
+ */
+public class IndexedJavadocReader extends AbstractJavadocReader {
+    public static final String INDEX_FILE_NAME = "javadoc-index.bin";
+
+    private static final Logger log = getLogger(JavadocReader.class);
+    private static final int MAGIC = 0x53415244; // SARD
+    private static final int VERSION = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File indexFile;
+    private final ByteBuffer payload;
+    private final Map<String, Entry> entries;
+
+    public IndexedJavadocReader(File indexFile) {
+        this.indexFile = indexFile;
+        ByteBuffer payload = ByteBuffer.allocate(0);
+        Map<String, Entry> entries = Collections.emptyMap();
+        try {
+            MappedByteBuffer buffer = map(indexFile);
+            entries = readEntries(buffer);
+            payload = buffer.slice();
+        } catch (IOException e) {
+            log.error("Problem reading file {}", indexFile, e);
+        }
+        this.payload = payload;
+        this.entries = entries;
+    }
+
+    @Override
+    protected ClassJavadoc loadClass(Class<?> clazz, String className) {
+        Entry entry = entries.get(className);
+        if (entry == null) {
+            log.warn("No Javadoc found for {} in {}", className, indexFile);
+            return ClassJavadoc.EMPTY;
+        }
+
+        try {
+            return parse(read(entry));
+        } catch (IOException e) {
+            log.error("Problem reading entry {} of file {}", className, indexFile, e);
+            return ClassJavadoc.EMPTY;
+        }
+    }
+
+    /**
+     * Javadoc JSON of all classes in the index by class name.
+     */
+    Map<String, JavadocSource> getSources() {
+        Map<String, JavadocSource> sources = new HashMap<>(entries.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            sources.put(entry.getKey(), new EntrySource(entry.getKey(), entry.getValue()));
+        }
+        return sources;
+    }
+
+    private byte[] read(Entry entry) {
+        byte[] json = new byte[entry.length];
+        ByteBuffer buffer = payload.duplicate();
+        buffer.position(entry.offset);
+        buffer.get(json);
+        return json;
+    }
+
+    private static MappedByteBuffer map(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            // mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static Map<String, Entry> readEntries(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a Javadoc index file");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported Javadoc index version " + version);
+        }
+
+        int count = buffer.getInt();
+        Map<String, Entry> entries = new HashMap<>(count * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            String className = readUtf(buffer);
+            int offset = buffer.getInt();
+            int length = buffer.getInt();
+            entries.put(className, new Entry(offset, length));
+        }
+        return entries;
+    }
+
+    private static String readUtf(ByteBuffer buffer) {
+        // written by DataOutput.writeUTF, class names never contain
+        // characters for which modified UTF-8 differs from UTF-8
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private class EntrySource implements JavadocSource {
+        private final String className;
+        private final Entry entry;
+
+        EntrySource(String className, Entry entry) {
+            this.className = className;
+            this.entry = entry;
+        }
+
+        @Override
+        public InputStream open() {
+            return new ByteArrayInputStream(read(entry));
+        }
+
+        @Override
+        public String toString() {
+            return indexFile + "!" + className;
+        }
+    }
+
+    private static class Entry {
+        private final int offset;
+        private final int length;
+
+        Entry(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static capital.scalable.restdocs.javadoc.JavadocSources.JSON_SUFFIX;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+
+/**
+ * Watches a Javadoc JSON directory and drops the cached Javadoc of each class whose
+ * file is created, changed or deleted, so that regenerated JSON is picked up by a
+ * running JVM. The Javadoc of all other classes stays cached.
+ * <p>
+ * Events are handled on a daemon thread. How fast changes are noticed depends on the
+ * {@link WatchService} of the platform.
+ */
+class JavadocJsonWatcher implements Closeable {
+    private static final Logger log = getLogger(JavadocReader.class);
+
+    private final Path root;
+    private final AbstractJavadocReader reader;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+    JavadocJsonWatcher(Path root, AbstractJavadocReader reader) throws IOException {
+        this.root = root;
+        this.reader = reader;
+        this.watchService = root.getFileSystem().newWatchService();
+        register(root, false);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "javadoc-json-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path dir = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW || dir == null) {
+                        reader.invalidateAll();
+                    } else {
+                        changed(dir.resolve((Path) event.context()), event.kind());
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // watcher closed
+        }
+    }
+
+    private void changed(Path file, WatchEvent.Kind<?> kind) {
+        if (kind == ENTRY_CREATE && Files.isDirectory(file)) {
+            try {
+                // files may have been written before the directory was registered
+                register(file, true);
+            } catch (IOException e) {
+                log.error("Problem watching directory {}", file, e);
+            }
+        } else if (file.getFileName().toString().endsWith(JSON_SUFFIX)) {
+            invalidate(file);
+        }
+    }
+
+    private void register(Path start, final boolean invalidateFiles) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+                    throws IOException {
+                WatchKey key = dir.register(watchService,
+                        ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (invalidateFiles && file.getFileName().toString().endsWith(JSON_SUFFIX)) {
+                    invalidate(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void invalidate(Path file) {
+        String relativeName = root.relativize(file).toString().replace(File.separatorChar, '/');
+        String className = JavadocSources.className(relativeName);
+        log.debug("Javadoc of {} changed", className);
+        reader.invalidate(className);
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.util.ClassUtils.resolveClassName;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Loads the Javadoc of all types reachable from controller handler methods in parallel,
+ * so that the first documented request does not pay for loading them one by one.
+ * <p>
+ * Starting from request body and return types, all field and getter types are
+ * followed, including type arguments, array components and {@link JsonSubTypes}.
+ * Types in packages excluded by the reader, e.g. library types, are not followed.
+ * <p>
+ * Only readers that cache Javadoc, i.e. all readers of this package, are preloaded.
+ * A class that fails to load is logged and the remaining classes are still loaded.
+ */
+public final class JavadocPreloader {
+    private static final Logger log = getLogger(JavadocPreloader.class);
+
+    private JavadocPreloader() {
+        // util
+    }
+
+    /**
+     * Preloads the shared reader for all handler methods of the given mapping.
+     */
+    public static void preload(RequestMappingHandlerMapping handlerMapping) {
+        preload(JavadocReaderRegistry.getJavadocReader(), handlerMapping, defaultParallelism());
+    }
+
+    public static void preload(JavadocReader javadocReader,
+            RequestMappingHandlerMapping handlerMapping, int parallelism) {
+        List<Method> handlerMethods = new ArrayList<>();
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+            handlerMethods.add(handlerMethod.getMethod());
+        }
+        preload(javadocReader, handlerMethods, parallelism);
+    }
+
+    /**
+     * Preloads the shared reader for all controllers in the given packages.
+     */
+    public static void preloadPackages(String... basePackages) {
+        preloadPackages(JavadocReaderRegistry.getJavadocReader(), defaultParallelism(),
+                basePackages);
+    }
+
+    public static void preloadPackages(JavadocReader javadocReader, int parallelism,
+            String... basePackages) {
+        ClassPathScanningCandidateComponentProvider scanner =
+                new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Controller.class));
+
+        List<Method> handlerMethods = new ArrayList<>();
+        for (String basePackage : basePackages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                Class<?> controller = resolveClassName(candidate.getBeanClassName(),
+                        JavadocPreloader.class.getClassLoader());
+                for (Method method : controller.getMethods()) {
+                    if (AnnotationUtils.findAnnotation(method, RequestMapping.class) != null) {
+                        handlerMethods.add(method);
+                    }
+                }
+            }
+        }
+        preload(javadocReader, handlerMethods, parallelism);
+    }
+
+    static void preload(JavadocReader javadocReader, Collection<Method> handlerMethods,
+            int parallelism) {
+        if (!(javadocReader instanceof AbstractJavadocReader)) {
+            log.debug("Javadoc reader {} does not cache Javadoc, nothing to preload",
+                    javadocReader);
+            return;
+        }
+        final AbstractJavadocReader reader = (AbstractJavadocReader) javadocReader;
+        Set<Class<?>> types = reachableTypes(reader, handlerMethods);
+        log.debug("Preloading Javadoc of {} types", types.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            Map<Class<?>, Future<?>> futures = new LinkedHashMap<>(types.size() * 4 / 3 + 1);
+            for (final Class<?> type : types) {
+                futures.put(type, executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        reader.load(type);
+                        return null;
+                    }
+                }));
+            }
+            for (Map.Entry<Class<?>, Future<?>> future : futures.entrySet()) {
+                try {
+                    future.getValue().get();
+                } catch (ExecutionException e) {
+                    log.warn("Problem preloading Javadoc of {}", future.getKey().getName(),
+                            e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static Set<Class<?>> reachableTypes(AbstractJavadocReader javadocReader,
+            Collection<Method> handlerMethods) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Type> pending = new ArrayDeque<>();
+        for (Method method : handlerMethods) {
+            // controllers are documented, but their members are not part of the API
+            types.add(method.getDeclaringClass());
+            pending.add(method.getGenericReturnType());
+            Type[] parameterTypes = method.getGenericParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (hasRequestBody(method, i)) {
+                    pending.add(parameterTypes[i]);
+                }
+            }
+        }
+
+        Set<Type> visited = new HashSet<>();
+        while (!pending.isEmpty()) {
+            Type type = pending.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            if (type instanceof Class) {
+                Class<?> clazz = (Class<?>) type;
+                if (clazz.isArray()) {
+                    pending.add(clazz.getComponentType());
+                } else if (isDocumentable(javadocReader, clazz)) {
+                    types.add(clazz);
+                    addMemberTypes(clazz, pending);
+                }
+            } else if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                pending.add(parameterizedType.getRawType());
+                addAll(pending, parameterizedType.getActualTypeArguments());
+            } else if (type instanceof GenericArrayType) {
+                pending.add(((GenericArrayType) type).getGenericComponentType());
+            } else if (type instanceof WildcardType) {
+                addAll(pending, ((WildcardType) type).getUpperBounds());
+            } else if (type instanceof TypeVariable) {
+                addAll(pending, ((TypeVariable<?>) type).getBounds());
+            }
+        }
+        return types;
+    }
+
+    private static boolean hasRequestBody(Method method, int parameterIndex) {
+        for (Annotation annotation : method.getParameterAnnotations()[parameterIndex]) {
+            if (annotation instanceof RequestBody) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addMemberTypes(Class<?> clazz, Deque<Type> pending) {
+        if (clazz.getGenericSuperclass() != null) {
+            pending.add(clazz.getGenericSuperclass());
+        }
+        addAll(pending, clazz.getGenericInterfaces());
+        for (Field field : clazz.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                pending.add(field.getGenericType());
+            }
+        }
+        for (Method method : clazz.getMethods()) {
+            if (isGetter(method)) {
+                pending.add(method.getGenericReturnType());
+            }
+        }
+        JsonSubTypes subTypes = clazz.getAnnotation(JsonSubTypes.class);
+        if (subTypes != null) {
+            for (JsonSubTypes.Type subType : subTypes.value()) {
+                pending.add(subType.value());
+            }
+        }
+    }
+
+    private static boolean isGetter(Method method) {
+        String name = method.getName();
+        return method.getParameterTypes().length == 0
+                && !Modifier.isStatic(method.getModifiers())
+                && method.getReturnType() != void.class
+                && (name.startsWith("get") || name.startsWith("is"));
+    }
+
+    private static boolean isDocumentable(AbstractJavadocReader javadocReader,
+            Class<?> clazz) {
+        // JDK classes are loaded by the bootstrap class loader and never have Javadoc JSON
+        return clazz != null && clazz.getClassLoader() != null
+                && javadocReader.isDocumentable(clazz);
+    }
+
+    private static void addAll(Deque<Type> pending, Type[] types) {
+        for (Type type : types) {
+            pending.add(type);
+        }
+    }
+
+    private static int defaultParallelism() {
+        return Math.min(Runtime.getRuntime().availableProcessors(), 8);
+    }
+}
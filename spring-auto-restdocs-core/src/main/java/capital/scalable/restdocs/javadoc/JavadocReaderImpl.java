@@ -19,83 +19,89 @@ package capital.scalable.restdocs.javadoc;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.springframework.util.StringUtils.hasText;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Reads the Javadoc JSON file of each class from a directory.
+ * <p>
+ * If the system property {@code org.springframework.restdocs.javadocWatch} is
+ * {@code true}, the directory is watched and the Javadoc of changed files is
+ * read again, see {@link JavadocJsonWatcher}.
+ */
+public class JavadocReaderImpl extends AbstractJavadocReader implements Closeable {
+    static final String WATCH_PROPERTY = "org.springframework.restdocs.javadocWatch";
 
-public class JavadocReaderImpl implements JavadocReader {
     private static final Logger log = getLogger(JavadocReader.class);
 
-    private final Map<String, ClassJavadoc> classCache = new ConcurrentHashMap<>();
-    private final ObjectMapper mapper = new ObjectMapper();
     private final File javadocJsonDir;
+    private final JavadocJsonWatcher watcher;
 
     public JavadocReaderImpl() {
         this(null);
     }
 
     public JavadocReaderImpl(String javadocJsonDir) {
+        this(javadocJsonDir, Boolean.getBoolean(WATCH_PROPERTY));
+    }
+
+    JavadocReaderImpl(String javadocJsonDir, boolean watch) {
         if (javadocJsonDir != null) {
             this.javadocJsonDir = new File(javadocJsonDir).getAbsoluteFile();
         } else {
             this.javadocJsonDir = systemPropertyJavadocJsonDir();
         }
-
-        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
-                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        this.watcher = watch ? watch(this.javadocJsonDir) : null;
     }
 
-    private ClassJavadoc getClass(Class<?> clazz) {
-        String packageName = clazz.getPackage().getName();
-        String packageDir = packageName.replace(".", File.separator);
-        String className = clazz.getCanonicalName().replaceAll(packageName + "\\.?", "");
-        String fileName = packageDir + "/" + className + ".json";
+    /**
+     * Stops watching the directory.
+     */
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
 
-        ClassJavadoc classJavadoc = classCache.get(fileName);
-        if (classJavadoc != null) {
-            return classJavadoc;
+    private JavadocJsonWatcher watch(File dir) {
+        if (dir == null || !dir.isDirectory()) {
+            log.warn("Javadoc JSON directory {} can not be watched", dir);
+            return null;
+        }
+        try {
+            return new JavadocJsonWatcher(dir.toPath(), this);
+        } catch (IOException e) {
+            log.error("Problem watching directory {}", dir, e);
+            return null;
         }
+    }
 
+    @Override
+    protected ClassJavadoc loadClass(Class<?> clazz, String className) {
+        String fileName = fileName(clazz, className);
         try {
             File docSource = makeRelativeToConfiguredJavadocJsonDir(new File(fileName));
-            classJavadoc = mapper
-                    .readerFor(ClassJavadoc.class)
-                    .readValue(docSource);
+            return parse(FileCopyUtils.copyToByteArray(docSource));
         } catch (FileNotFoundException e) {
-            log.warn("No Javadoc found for {} at {}", clazz.getCanonicalName(), fileName);
-            classJavadoc = new ClassJavadoc();
+            log.warn("No Javadoc found for {} at {}", className, fileName);
+            return ClassJavadoc.EMPTY;
         } catch (IOException e) {
             log.error("Problem reading file {}", fileName, e);
-            classJavadoc = new ClassJavadoc();
+            return ClassJavadoc.EMPTY;
         }
-
-        classCache.put(fileName, classJavadoc);
-        return classJavadoc;
-    }
-
-    @Override
-    public String resolveFieldComment(Class<?> javaBaseClass, String javaFieldName) {
-        return getClass(javaBaseClass).getFieldComment(javaFieldName);
     }
 
-    @Override
-    public String resolveMethodComment(Class<?> javaBaseClass, String javaMethodName) {
-        return getClass(javaBaseClass).getMethodComment(javaMethodName);
-    }
-
-    @Override
-    public String resolveMethodParameterComment(Class<?> javaBaseClass, String javaMethodName,
-            String javaParameterName) {
-        return getClass(javaBaseClass).getMethodParameterComment(javaMethodName, javaParameterName);
+    private String fileName(Class<?> clazz, String className) {
+        String packageName = clazz.getPackage().getName();
+        String packageDir = packageName.replace(".", File.separator);
+        String simpleName = className.replaceAll(packageName + "\\.?", "");
+        return packageDir + "/" + simpleName + ".json";
     }
 
     private File makeRelativeToConfiguredJavadocJsonDir(File outputFile) {
@@ -107,7 +113,7 @@ public class JavadocReaderImpl implements JavadocReader {
 
     private File systemPropertyJavadocJsonDir() {
         String outputDir = System.getProperties().getProperty(
-                "org.springframework.restdocs.javadocJsonDir");
+                JavadocReaderRegistry.JAVADOC_JSON_DIR_PROPERTY);
         if (hasText(outputDir)) {
             return new File(outputDir).getAbsoluteFile();
         }
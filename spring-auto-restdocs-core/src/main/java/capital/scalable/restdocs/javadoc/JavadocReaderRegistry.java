@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.util.StringUtils.hasText;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+
+/**
+ * JVM-wide registry of {@link JavadocReader}s keyed by Javadoc JSON directory.
+ * <p>
+ * Readers cache parsed Javadoc, so sharing them across requests, test classes and
+ * Spring contexts avoids reading the same JSON files over and over again.
+ * <p>
+ * If the system property {@code org.springframework.restdocs.javadocStatsLog} is
+ * {@code true}, the {@link JavadocReaderStats} of all readers are logged when the
+ * JVM exits.
+ */
+public final class JavadocReaderRegistry {
+    static final String JAVADOC_JSON_DIR_PROPERTY = "org.springframework.restdocs.javadocJsonDir";
+    static final String STATS_LOG_PROPERTY = "org.springframework.restdocs.javadocStatsLog";
+
+    private static final Logger log = getLogger(JavadocReader.class);
+    private static final String NO_DIR = "";
+    private static final char ROOT_SEPARATOR = ',';
+
+    private static final ConcurrentMap<String, JavadocReader> readers = new ConcurrentHashMap<>();
+    private static final AtomicBoolean statsLogRegistered = new AtomicBoolean();
+
+    private JavadocReaderRegistry() {
+        // registry
+    }
+
+    /**
+     * Shared reader for the directory configured in the system property
+     * {@code org.springframework.restdocs.javadocJsonDir}.
+     */
+    public static JavadocReader getJavadocReader() {
+        return getJavadocReader(System.getProperties().getProperty(JAVADOC_JSON_DIR_PROPERTY));
+    }
+
+    /**
+     * Shared reader for the given directory. Falls back to the current working
+     * directory if no directory is given. If the directory contains a single file
+     * index written by the doclet, the index is used instead of the JSON files.
+     * Locations prefixed with {@code classpath:} are looked up on the classpath.
+     * Several comma separated locations are merged into one index, where the
+     * first location documenting a class wins, see {@link MultiRootJavadocReader}.
+     */
+    public static JavadocReader getJavadocReader(String javadocJsonDir) {
+        String key = key(javadocJsonDir);
+        JavadocReader reader = readers.get(key);
+        if (reader != null) {
+            return reader;
+        }
+
+        JavadocReader newReader = createJavadocReader(key.isEmpty() ? "." : key);
+        reader = readers.putIfAbsent(key, newReader);
+        if (reader != null) {
+            // lost the race, release the watcher thread or JARs of the new reader
+            close(newReader);
+            return reader;
+        }
+        registerStatsLog();
+        warnIfWatchUnsupported(key.isEmpty() ? "." : key, newReader);
+        return newReader;
+    }
+
+    /**
+     * Logs the {@link JavadocReaderStats} of all shared readers and warns about
+     * locations where no Javadoc was found at all.
+     */
+    public static void logStats() {
+        for (Map.Entry<String, JavadocReader> entry : readers.entrySet()) {
+            if (!(entry.getValue() instanceof AbstractJavadocReader)) {
+                continue;
+            }
+            String location = entry.getKey().isEmpty() ? "." : entry.getKey();
+            JavadocReaderStats stats = ((AbstractJavadocReader) entry.getValue()).getStats();
+            log.info("Javadoc reader for {}: {}", location, stats);
+            if (stats.getCacheMisses() > 0 && stats.getFilesRead() == 0) {
+                log.warn("No Javadoc JSON found at {}, check the system property {}",
+                        location, JAVADOC_JSON_DIR_PROPERTY);
+            }
+        }
+    }
+
+    /**
+     * Number of times the given reader dropped Javadoc, e.g. in watch mode. Anything
+     * derived from its comments is stale once this number changed.
+     */
+    public static long getModificationCount(JavadocReader reader) {
+        return reader instanceof AbstractJavadocReader
+                ? ((AbstractJavadocReader) reader).modificationCount() : 0;
+    }
+
+    /**
+     * Removes all shared readers, e.g. after the Javadoc JSON files were regenerated.
+     */
+    public static void clear() {
+        for (JavadocReader reader : readers.values()) {
+            close(reader);
+        }
+        readers.clear();
+    }
+
+    private static void close(JavadocReader reader) {
+        if (reader instanceof Closeable) {
+            try {
+                ((Closeable) reader).close();
+            } catch (IOException e) {
+                log.warn("Problem closing Javadoc reader", e);
+            }
+        }
+    }
+
+    private static void warnIfWatchUnsupported(String location, JavadocReader reader) {
+        if (Boolean.getBoolean(JavadocReaderImpl.WATCH_PROPERTY)
+                && !(reader instanceof JavadocReaderImpl)) {
+            log.warn("Javadoc JSON at {} is not watched, {} only applies to a single "
+                    + "directory of JSON files", location, JavadocReaderImpl.WATCH_PROPERTY);
+        }
+    }
+
+    private static void registerStatsLog() {
+        if (Boolean.getBoolean(STATS_LOG_PROPERTY)
+                && statsLogRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread("javadoc-stats-log") {
+                @Override
+                public void run() {
+                    logStats();
+                }
+            });
+        }
+    }
+
+    private static JavadocReader createJavadocReader(String javadocJsonDir) {
+        if (javadocJsonDir.indexOf(ROOT_SEPARATOR) >= 0) {
+            return new MultiRootJavadocReader(
+                    Arrays.asList(javadocJsonDir.split(String.valueOf(ROOT_SEPARATOR))));
+        }
+        if (javadocJsonDir.startsWith(ClasspathJavadocReader.CLASSPATH_PREFIX)) {
+            return new ClasspathJavadocReader(javadocJsonDir);
+        }
+        File indexFile = new File(javadocJsonDir, IndexedJavadocReader.INDEX_FILE_NAME);
+        if (indexFile.isFile()) {
+            return new IndexedJavadocReader(indexFile);
+        }
+        return new JavadocReaderImpl(javadocJsonDir);
+    }
+
+    private static String key(String javadocJsonDir) {
+        if (!hasText(javadocJsonDir)) {
+            return NO_DIR;
+        }
+        StringBuilder key = new StringBuilder();
+        for (String dir : javadocJsonDir.split(String.valueOf(ROOT_SEPARATOR))) {
+            if (hasText(dir)) {
+                if (key.length() > 0) {
+                    key.append(ROOT_SEPARATOR);
+                }
+                key.append(rootKey(dir.trim()));
+            }
+        }
+        return key.toString();
+    }
+
+    private static String rootKey(String dir) {
+        if (dir.startsWith(ClasspathJavadocReader.CLASSPATH_PREFIX)) {
+            return dir;
+        }
+        return new File(dir).getAbsolutePath();
+    }
+}
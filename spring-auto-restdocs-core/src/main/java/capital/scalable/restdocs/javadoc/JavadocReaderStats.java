@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and timers of a Javadoc reader, e.g. to spot a misconfigured
+ * Javadoc JSON directory or slow lookups.
+ * <p>
+ * Lookups of classes in excluded packages are not counted.
+ */
+public final class JavadocReaderStats {
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong filesRead = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+    private final AtomicLong missingClasses = new AtomicLong();
+
+    void cacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    void classLoaded(long nanos, boolean found) {
+        cacheMisses.incrementAndGet();
+        loadNanos.addAndGet(nanos);
+        if (!found) {
+            missingClasses.incrementAndGet();
+        }
+    }
+
+    void fileParsed(long bytes, long nanos) {
+        filesRead.incrementAndGet();
+        bytesRead.addAndGet(bytes);
+        parseNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Lookups answered from the cache.
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Lookups that had to load the Javadoc of a class.
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Javadoc JSON files, or index entries, that were read.
+     */
+    public long getFilesRead() {
+        return filesRead.get();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    /**
+     * Time spent parsing JSON.
+     */
+    public long getParseTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(parseNanos.get());
+    }
+
+    /**
+     * Time spent loading Javadoc, i.e. finding, reading and parsing JSON.
+     */
+    public long getLoadTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(loadNanos.get());
+    }
+
+    /**
+     * Classes for which no Javadoc was found or the Javadoc could not be read.
+     */
+    public long getMissingClasses() {
+        return missingClasses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "cache hits: " + getCacheHits()
+                + ", cache misses: " + getCacheMisses()
+                + ", files read: " + getFilesRead()
+                + ", bytes read: " + getBytesRead()
+                + ", parse time: " + getParseTimeMillis() + " ms"
+                + ", load time: " + getLoadTimeMillis() + " ms"
+                + ", missing classes: " + getMissingClasses();
+    }
+}
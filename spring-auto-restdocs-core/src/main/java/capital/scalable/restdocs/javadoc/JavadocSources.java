@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Locations of the Javadoc JSON of single classes, collected into indexes keyed by
+ * class name. The first source added for a class wins.
+ */
+final class JavadocSources {
+    static final String JSON_SUFFIX = ".json";
+
+    private JavadocSources() {
+        // utility class
+    }
+
+    interface JavadocSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Adds all JSON files below the given directory.
+     */
+    static void addDirectory(final Path root, final Map<String, JavadocSource> index)
+            throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (name.endsWith(JSON_SUFFIX)) {
+                    add(index, name, new FileSource(file.toFile()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Adds a JSON file by its path relative to the root, e.g. {@code a/b/C.Inner.json}.
+     */
+    static void add(Map<String, JavadocSource> index, String relativeName,
+            JavadocSource source) {
+        String className = className(relativeName);
+        if (!index.containsKey(className)) {
+            index.put(className, source);
+        }
+    }
+
+    /**
+     * Class name of a JSON file by its path relative to the root.
+     */
+    static String className(String relativeName) {
+        return relativeName.substring(0, relativeName.length() - JSON_SUFFIX.length())
+                .replace('/', '.');
+    }
+
+    static class FileSource implements JavadocSource {
+        private final File file;
+
+        FileSource(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return Files.newInputStream(file.toPath());
+        }
+
+        @Override
+        public String toString() {
+            return file.getPath();
+        }
+    }
+
+    static class ZipSource implements JavadocSource {
+        private final ZipFile zipFile;
+        private final ZipEntry entry;
+
+        ZipSource(ZipFile zipFile, ZipEntry entry) {
+            this.zipFile = zipFile;
+            this.entry = entry;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return zipFile.getInputStream(entry);
+        }
+
+        @Override
+        public String toString() {
+            return zipFile.getName() + "!/" + entry.getName();
+        }
+    }
+}
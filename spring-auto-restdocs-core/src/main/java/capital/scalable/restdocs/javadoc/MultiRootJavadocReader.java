@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static capital.scalable.restdocs.javadoc.ClasspathJavadocReader.CLASSPATH_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import capital.scalable.restdocs.javadoc.JavadocSources.JavadocSource;
+import org.slf4j.Logger;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Reads Javadoc JSON from several roots, e.g. the {@code generated-javadoc-json}
+ * directories of all modules of a multi-module build.
+ * <p>
+ * The JSON of all roots is indexed once when the reader is created, so that each
+ * lookup is a single probe of the merged index. A root can be a directory of JSON
+ * files, a directory with a single file index or a {@code classpath:} location.
+ * If a class is documented in more than one root, the first root wins.
+ */
+public class MultiRootJavadocReader extends AbstractJavadocReader implements Closeable {
+    private static final Logger log = getLogger(JavadocReader.class);
+
+    private final List<String> roots;
+    private final Map<String, JavadocSource> index = new HashMap<>();
+    private final List<ClasspathJavadocReader> classpathReaders = new ArrayList<>();
+
+    public MultiRootJavadocReader(List<String> roots) {
+        this.roots = new ArrayList<>(roots);
+        for (String root : roots) {
+            indexRoot(root.trim());
+        }
+    }
+
+    @Override
+    protected ClassJavadoc loadClass(Class<?> clazz, String className) {
+        JavadocSource source = index.get(className);
+        if (source == null) {
+            log.warn("No Javadoc found for {} in {}", className, roots);
+            return ClassJavadoc.EMPTY;
+        }
+
+        try (InputStream in = source.open()) {
+            return parse(StreamUtils.copyToByteArray(in));
+        } catch (IOException e) {
+            log.error("Problem reading {}", source, e);
+            return ClassJavadoc.EMPTY;
+        }
+    }
+
+    /**
+     * Closes the JARs of all {@code classpath:} roots.
+     */
+    @Override
+    public void close() throws IOException {
+        for (ClasspathJavadocReader classpathReader : classpathReaders) {
+            classpathReader.close();
+        }
+    }
+
+    private void indexRoot(String root) {
+        if (root.startsWith(CLASSPATH_PREFIX)) {
+            ClasspathJavadocReader classpathReader = new ClasspathJavadocReader(root);
+            classpathReaders.add(classpathReader);
+            addAll(classpathReader.getSources());
+            return;
+        }
+
+        File dir = new File(root).getAbsoluteFile();
+        File indexFile = new File(dir, IndexedJavadocReader.INDEX_FILE_NAME);
+        if (indexFile.isFile()) {
+            addAll(new IndexedJavadocReader(indexFile).getSources());
+        } else if (dir.isDirectory()) {
+            try {
+                JavadocSources.addDirectory(dir.toPath(), index);
+            } catch (IOException e) {
+                log.error("Problem indexing directory {}", dir, e);
+            }
+        } else {
+            log.warn("Javadoc JSON directory {} does not exist", dir);
+        }
+    }
+
+    private void addAll(Map<String, JavadocSource> sources) {
+        for (Map.Entry<String, JavadocSource> source : sources.entrySet()) {
+            if (!index.containsKey(source.getKey())) {
+                index.put(source.getKey(), source.getValue());
+            }
+        }
+    }
+}
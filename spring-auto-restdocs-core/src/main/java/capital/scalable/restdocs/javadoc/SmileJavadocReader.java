@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Parses Javadoc written by the doclet with the {@code -smile} option.
+ * <p>
+ * Requires {@code com.fasterxml.jackson.dataformat:jackson-dataformat-smile}, an optional
+ * dependency. The Smile classes are only loaded once Smile content is found.
+ */
+final class SmileJavadocReader {
+    private static final boolean SMILE_PRESENT = ClassUtils.isPresent(
+            "com.fasterxml.jackson.dataformat.smile.SmileFactory",
+            SmileJavadocReader.class.getClassLoader());
+
+    private SmileJavadocReader() {
+        // utility class
+    }
+
+    static ClassJavadoc read(byte[] smile) throws IOException {
+        if (!SMILE_PRESENT) {
+            throw new IOException("Reading Javadoc in Smile format requires "
+                    + "com.fasterxml.jackson.dataformat:jackson-dataformat-smile");
+        }
+        return Holder.READER.readValue(smile);
+    }
+
+    private static final class Holder {
+        private static final ObjectReader READER = AbstractJavadocReader.classJavadocReader(
+                new ObjectMapper(new SmileFactory()));
+    }
+}
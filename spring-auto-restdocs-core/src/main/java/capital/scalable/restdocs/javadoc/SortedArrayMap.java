@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable map from names to values backed by two arrays sorted by name.
+ * Uses a fraction of the memory of a {@link java.util.HashMap}.
+ */
+final class SortedArrayMap<V> {
+    private static final SortedArrayMap<?> EMPTY =
+            new SortedArrayMap<>(new String[0], new Object[0]);
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private SortedArrayMap(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> SortedArrayMap<V> empty() {
+        return (SortedArrayMap<V>) EMPTY;
+    }
+
+    static <V> SortedArrayMap<V> of(Map<String, V> map) {
+        if (map == null || map.isEmpty()) {
+            return empty();
+        }
+        TreeMap<String, V> sorted = new TreeMap<>(map);
+        String[] keys = new String[sorted.size()];
+        Object[] values = new Object[sorted.size()];
+        int i = 0;
+        for (Map.Entry<String, V> entry : sorted.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new SortedArrayMap<>(keys, values);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(String key) {
+        if (key == null) {
+            return null;
+        }
+        int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    String keyAt(int index) {
+        return keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Returns a canonical instance for equal strings, so that boilerplate comments
+ * like "The id." are held only once. Strings are weakly referenced and are
+ * dropped together with the last Javadoc using them.
+ */
+final class StringDeduplicator {
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+    synchronized String deduplicate(String value) {
+        if (value == null) {
+            return null;
+        }
+        WeakReference<String> reference = strings.get(value);
+        String canonical = reference != null ? reference.get() : null;
+        if (canonical == null) {
+            canonical = value;
+            strings.put(canonical, new WeakReference<>(canonical));
+        }
+        return canonical;
+    }
+
+    /**
+     * Number of canonical strings held.
+     */
+    synchronized int size() {
+        return strings.size();
+    }
+}
@@ -28,6 +28,13 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import capital.scalable.restdocs.constraints.ConstraintReader;
 import capital.scalable.restdocs.jackson.FieldDocumentationGenerator;
@@ -36,7 +43,6 @@ import capital.scalable.restdocs.snippet.StandardTableSnippet;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.springframework.core.MethodParameter;
 import org.springframework.restdocs.operation.Operation;
@@ -44,6 +50,7 @@ import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.web.method.HandlerMethod;
 
 abstract class AbstractJacksonFieldSnippet extends StandardTableSnippet {
+    static final String PARALLELISM_PROPERTY = "org.springframework.restdocs.subtypeParallelism";
 
     protected AbstractJacksonFieldSnippet(String type) {
         this(type, null);
@@ -56,7 +63,6 @@ abstract class AbstractJacksonFieldSnippet extends StandardTableSnippet {
     protected Collection<FieldDescriptor> createFieldDescriptors(Operation operation,
             HandlerMethod handlerMethod) {
         ObjectMapper objectMapper = getObjectMapper(operation);
-        ObjectWriter writer = objectMapper.writer();
         TypeFactory typeFactory = objectMapper.getTypeFactory();
 
         JavadocReader javadocReader = getJavadocReader(operation);
@@ -67,9 +73,10 @@ abstract class AbstractJacksonFieldSnippet extends StandardTableSnippet {
         Type signatureType = getType(handlerMethod);
         if (signatureType != null) {
             try {
-                for (Type type : resolveActualTypes(signatureType)) {
-                    resolveFieldDescriptors(fieldDescriptors, type, writer, typeFactory,
-                            javadocReader, constraintReader);
+                List<Type> types = resolveActualTypes(signatureType);
+                for (List<FieldDescriptor> descriptors : generateDocumentation(types, objectMapper,
+                        typeFactory, javadocReader, constraintReader)) {
+                    mergeFieldDescriptors(fieldDescriptors, descriptors);
                 }
             } catch (JsonMappingException e) {
                 throw new JacksonFieldProcessingException("Error while parsing fields", e);
@@ -85,13 +92,13 @@ abstract class AbstractJacksonFieldSnippet extends StandardTableSnippet {
 
     protected abstract Type getType(HandlerMethod method);
 
-    private Collection<Type> resolveActualTypes(Type type) {
+    private List<Type> resolveActualTypes(Type type) {
 
         if (type instanceof Class) {
             JsonSubTypes jsonSubTypes = (JsonSubTypes) ((Class) type).getAnnotation(
                     JsonSubTypes.class);
             if (jsonSubTypes != null) {
-                Collection<Type> types = new ArrayList<>();
+                List<Type> types = new ArrayList<>();
                 for (JsonSubTypes.Type subType : jsonSubTypes.value()) {
                     types.add(subType.value());
                 }
@@ -102,17 +109,92 @@ abstract class AbstractJacksonFieldSnippet extends StandardTableSnippet {
         return singletonList(type);
     }
 
-    private void resolveFieldDescriptors(Map<String, FieldDescriptor> fieldDescriptors,
-            Type type, ObjectWriter writer, TypeFactory typeFactory, JavadocReader javadocReader,
-            ConstraintReader constraintReader)
+    /**
+     * Field descriptors of each type, in the order of the types. Several types, i.e. the
+     * subtypes of a polymorphic type, are documented concurrently.
+     */
+    private List<List<FieldDescriptor>> generateDocumentation(List<Type> types,
+            final ObjectMapper objectMapper, final TypeFactory typeFactory,
+            final JavadocReader javadocReader, final ConstraintReader constraintReader)
             throws JsonMappingException {
-        FieldDocumentationGenerator generator = new FieldDocumentationGenerator(writer,
-                javadocReader, constraintReader);
-        List<FieldDescriptor> descriptors = generator.generateDocumentation(type, typeFactory);
+        List<List<FieldDescriptor>> documentation = new ArrayList<>(types.size());
+        if (types.size() == 1 || SubtypePool.INSTANCE == null) {
+            for (Type type : types) {
+                documentation.add(new FieldDocumentationGenerator(objectMapper, javadocReader,
+                        constraintReader).generateDocumentation(type, typeFactory));
+            }
+            return documentation;
+        }
+
+        List<Callable<List<FieldDescriptor>>> tasks = new ArrayList<>(types.size());
+        for (final Type type : types) {
+            tasks.add(new Callable<List<FieldDescriptor>>() {
+                @Override
+                public List<FieldDescriptor> call() throws JsonMappingException {
+                    return new FieldDocumentationGenerator(objectMapper, javadocReader,
+                            constraintReader).generateDocumentation(type, typeFactory);
+                }
+            });
+        }
+        try {
+            // futures are in the order of the tasks, so the result does not depend on timing
+            for (Future<List<FieldDescriptor>> future : SubtypePool.INSTANCE.invokeAll(tasks)) {
+                documentation.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JacksonFieldProcessingException("Interrupted while parsing fields", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JsonMappingException) {
+                throw (JsonMappingException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new JacksonFieldProcessingException("Error while parsing fields", cause);
+        }
+        return documentation;
+    }
+
+    private void mergeFieldDescriptors(Map<String, FieldDescriptor> fieldDescriptors,
+            List<FieldDescriptor> descriptors) {
         for (FieldDescriptor descriptor : descriptors) {
             if (fieldDescriptors.get(descriptor.getPath()) == null) {
                 fieldDescriptors.put(descriptor.getPath(), descriptor);
             }
         }
     }
+
+    /**
+     * Pool documenting subtypes, sized by the system property
+     * {@code org.springframework.restdocs.subtypeParallelism}. A parallelism of one
+     * documents subtypes sequentially. The pool is never shut down, its named daemon
+     * threads do not keep the test JVM alive.
+     */
+    private static class SubtypePool {
+        private static final ForkJoinPool INSTANCE = create(
+                Integer.getInteger(PARALLELISM_PROPERTY,
+                        Runtime.getRuntime().availableProcessors()));
+
+        private static ForkJoinPool create(int parallelism) {
+            return parallelism > 1
+                    ? new ForkJoinPool(parallelism, new DaemonThreadFactory(), null, false)
+                    : null;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ForkJoinWorkerThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {
+            };
+            thread.setName("restdocs-subtypes-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
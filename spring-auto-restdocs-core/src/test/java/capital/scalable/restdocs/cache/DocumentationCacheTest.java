@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DocumentationCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesAndReadsEntries() throws IOException {
+        DocumentationCache cache = new DocumentationCache(folder.getRoot());
+        Item item = new Item();
+        item.name = "item";
+
+        cache.write("items", "first", item);
+
+        assertThat(new File(folder.getRoot(), "items/first.json").isFile(), is(true));
+        assertThat(cache.read("items", "first", Item.class).name, is("item"));
+        assertThat(cache.read("items", "second", Item.class), nullValue());
+    }
+
+    @Test
+    public void ignoresUnreadableEntries() throws IOException {
+        DocumentationCache cache = new DocumentationCache(folder.getRoot());
+        File file = new File(folder.newFolder("items"), "broken.json");
+        Files.write(file.toPath(), "{not json".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(cache.read("items", "broken", Item.class), nullValue());
+    }
+
+    @Test
+    public void disabledWithoutDirectory() {
+        DocumentationCache cache = new DocumentationCache(null);
+        cache.write("items", "first", new Item());
+
+        assertThat(cache.isEnabled(), is(false));
+        assertThat(cache.read("items", "first", Item.class), nullValue());
+    }
+
+    @Test
+    public void hashesChangeWithContent() {
+        assertThat(ClassHashes.sha1("a"), is(ClassHashes.sha1("a")));
+        assertThat(ClassHashes.sha1("a"), not(ClassHashes.sha1("b")));
+        assertThat(ClassHashes.hash(DocumentationCacheTest.class),
+                is(ClassHashes.hash(DocumentationCacheTest.class)));
+        assertThat(ClassHashes.hash(DocumentationCacheTest.class),
+                not(ClassHashes.hash(Item.class)));
+    }
+
+    private static class Item {
+        private String name;
+    }
+}
@@ -27,16 +27,23 @@ import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Null;
 import javax.validation.constraints.Size;
+import java.io.File;
 import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.List;
 
+import capital.scalable.restdocs.cache.DocumentationCache;
 import org.hibernate.validator.constraints.NotBlank;
 import org.hibernate.validator.constraints.NotEmpty;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class ConstraintReaderImplTest {
 
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
     private ConstraintReader reader = new ConstraintReaderImpl();
 
     @Test
@@ -51,6 +58,31 @@ public class ConstraintReaderImplTest {
         assertThat(reader.isMandatory(OneOf.class), is(false));
     }
 
+    @Test
+    public void getConstraintMessagesFromPersistentCache() {
+        ConstraintCache cache = new ConstraintCache(new DocumentationCache(folder.getRoot()));
+        ConstraintReader cachingReader = new ConstraintReaderImpl(cache);
+        assertThat(cachingReader.getConstraintMessages(Constraintz.class, "index").get(0),
+                is("Must be at least 1"));
+        assertThat(cachingReader.getOptionalMessages(Constraintz.class, "name").size(), is(1));
+
+        // written once per class on flush
+        File entry = new File(folder.getRoot(),
+                "constraints/" + Constraintz.class.getName() + ".json");
+        assertThat(entry.isFile(), is(false));
+        cache.flush();
+        assertThat(entry.isFile(), is(true));
+
+        // fresh reader, entries come from disk
+        cachingReader = new ConstraintReaderImpl(
+                new ConstraintCache(new DocumentationCache(folder.getRoot())));
+        List<String> messages = cachingReader.getConstraintMessages(Constraintz.class, "index");
+        assertThat(messages.size(), is(1));
+        assertThat(messages.get(0), is("Must be at least 1"));
+        assertThat(cachingReader.getOptionalMessages(Constraintz.class, "name"),
+                is(reader.getOptionalMessages(Constraintz.class, "name")));
+    }
+
     @Test
     public void getConstraintMessages() {
         List<String> messages = reader.getConstraintMessages(Constraintz.class, "name");
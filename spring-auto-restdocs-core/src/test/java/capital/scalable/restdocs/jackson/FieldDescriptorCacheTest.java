@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jackson;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import capital.scalable.restdocs.constraints.ConstraintReader;
+import capital.scalable.restdocs.javadoc.JavadocReader;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.restdocs.snippet.Attributes.Attribute;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultHandler;
+import org.springframework.web.method.HandlerMethod;
+
+public class FieldDescriptorCacheTest {
+
+    @Test
+    public void repeatedTypeIsIntrospectedOnce() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectWriter writer = spy(mapper.writer());
+        JavadocReader javadocReader = mock(JavadocReader.class);
+        when(javadocReader.resolveFieldComment(Item.class, "name")).thenReturn("The name");
+        ConstraintReader constraintReader = mock(ConstraintReader.class);
+        FieldDocumentationGenerator generator =
+                new FieldDocumentationGenerator(writer, javadocReader, constraintReader);
+        JavaType type = mapper.constructType(Item.class);
+
+        List<FieldDescriptor> first = generator.generateDocumentation(type);
+        List<FieldDescriptor> second = generator.generateDocumentation(type);
+
+        verify(writer, times(1)).acceptJsonFormatVisitor(
+                any(JavaType.class), any(JsonFormatVisitorWrapper.class));
+        assertThat(second.size(), is(1));
+        assertThat(second.get(0).getPath(), is("name"));
+        assertThat(second.get(0).getDescription(), is((Object) "The name"));
+        assertThat(second.get(0).getType(), is((Object) "String"));
+        assertThat(second.get(0).getAttributes(), is(first.get(0).getAttributes()));
+        // copies, so that callers cannot modify the cached descriptors
+        assertThat(second.get(0), not(sameInstance(first.get(0))));
+        first.get(0).description("changed");
+        assertThat(generator.generateDocumentation(type).get(0).getDescription(),
+                is((Object) "The name"));
+    }
+
+    @Test
+    public void otherConfigurationIsIntrospectedAgain() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JavadocReader javadocReader = mock(JavadocReader.class);
+        ConstraintReader constraintReader = mock(ConstraintReader.class);
+        JavaType type = mapper.constructType(Item.class);
+        new FieldDocumentationGenerator(mapper.writer(), javadocReader, constraintReader)
+                .generateDocumentation(type);
+
+        ObjectWriter otherWriter =
+                spy(mapper.writer().with(SerializationFeature.WRAP_ROOT_VALUE));
+        new FieldDocumentationGenerator(otherWriter, javadocReader, constraintReader)
+                .generateDocumentation(type);
+
+        verify(otherWriter, times(1)).acceptJsonFormatVisitor(
+                any(JavaType.class), any(JsonFormatVisitorWrapper.class));
+    }
+
+    @Test
+    public void requestsPreparedByResultHandlerShareEntries() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ResultHandler resultHandler = JacksonResultHandlers.prepareJackson(mapper);
+        Map<String, Object> first = prepare(resultHandler);
+        Map<String, Object> second = prepare(resultHandler);
+        JavaType type = mapper.constructType(Item.class);
+
+        new FieldDocumentationGenerator(mapper.writer(),
+                (JavadocReader) first.get(JavadocReader.class.getName()),
+                (ConstraintReader) first.get(ConstraintReader.class.getName()))
+                .generateDocumentation(type);
+        ObjectWriter writer = spy(mapper.writer());
+        new FieldDocumentationGenerator(writer,
+                (JavadocReader) second.get(JavadocReader.class.getName()),
+                (ConstraintReader) second.get(ConstraintReader.class.getName()))
+                .generateDocumentation(type);
+
+        verify(writer, never()).acceptJsonFormatVisitor(
+                any(JavaType.class), any(JsonFormatVisitorWrapper.class));
+    }
+
+    @Test
+    public void listAttributesAreCopied() {
+        List<String> constraints = new ArrayList<>(Collections.singletonList("Must be set"));
+        FieldDescriptor descriptor = fieldWithPath("name")
+                .attributes(new Attribute("constraints", constraints));
+
+        FieldDescriptor copy = FieldDescriptorCache.copy(descriptor, "name");
+        constraints.add("Must be short");
+
+        assertThat(copy.getAttributes().get("constraints"),
+                is((Object) Collections.singletonList("Must be set")));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        FieldDescriptorCache cache = new FieldDescriptorCache(2);
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectWriter writer = mapper.writer();
+        JavadocReader javadocReader = mock(JavadocReader.class);
+        ConstraintReader constraintReader = mock(ConstraintReader.class);
+        FieldDescriptorCache.Key item = cache.key(writer, mapper.constructType(Item.class),
+                javadocReader, constraintReader);
+        FieldDescriptorCache.Key other = cache.key(writer, mapper.constructType(Other.class),
+                javadocReader, constraintReader);
+        FieldDescriptorCache.Key string = cache.key(writer, mapper.constructType(String.class),
+                javadocReader, constraintReader);
+        List<FieldDescriptor> descriptors =
+                Collections.singletonList(fieldWithPath("name").type("String"));
+
+        cache.put(item, descriptors);
+        cache.put(other, descriptors);
+        cache.get(item);
+        cache.put(string, descriptors);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get(item).size(), is(1));
+        assertThat(cache.get(other), nullValue());
+        assertThat(cache.get(string).get(0).getPath(), is("name"));
+    }
+
+    @Test
+    public void zeroSizeDisablesCache() {
+        assertThat(new FieldDescriptorCache(0).isEnabled(), is(false));
+        assertThat(new FieldDescriptorCache(1).isEnabled(), is(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> prepare(ResultHandler resultHandler) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Map<String, Object> configuration = new HashMap<>();
+        request.setAttribute("org.springframework.restdocs.configuration", configuration);
+        MvcResult result = mock(MvcResult.class);
+        when(result.getRequest()).thenReturn(request);
+        when(result.getHandler()).thenReturn(
+                new HandlerMethod(new Object(), Object.class.getMethod("toString")));
+        resultHandler.handle(result);
+        return configuration;
+    }
+
+    private static class Item {
+        public String name;
+    }
+
+    private static class Other {
+        public int count;
+    }
+}
@@ -23,6 +23,8 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 
@@ -218,6 +220,100 @@ public class FieldDocumentationGeneratorTest {
                 is(descriptor("sibling", "Object", "Sibling type", "true")));
     }
 
+    @Test
+    public void testGenerateDocumentationForReusedNestedTypes() throws Exception {
+        // given
+        ObjectMapper mapper = createMapper();
+        JavadocReader javadocReader = mock(JavadocReader.class);
+        when(javadocReader.resolveFieldComment(ReusedTypes.class, "price"))
+                .thenReturn("Price");
+        when(javadocReader.resolveFieldComment(ReusedTypes.class, "discount"))
+                .thenReturn("Discount");
+        when(javadocReader.resolveFieldComment(Money.class, "amount"))
+                .thenReturn("Amount");
+
+        ConstraintReader constraintReader = mock(ConstraintReader.class);
+        when(constraintReader.getConstraintMessages(Money.class, "currency"))
+                .thenReturn(singletonList("Must be ISO 4217"));
+
+        FieldDocumentationGenerator generator =
+                new FieldDocumentationGenerator(mapper.writer(), javadocReader, constraintReader);
+        Type type = ReusedTypes.class;
+
+        // when
+        List<ExtendedFieldDescriptor> fieldDescriptions = cast(generator
+                .generateDocumentation(type, mapper.getTypeFactory()));
+
+        // then
+        assertThat(fieldDescriptions.size(), is(6));
+        assertThat(fieldDescriptions.get(0),
+                is(descriptor("price", "Object", "Price", "true")));
+        assertThat(fieldDescriptions.get(1),
+                is(descriptor("price.amount", "Integer", "Amount", "true")));
+        assertThat(fieldDescriptions.get(2),
+                is(descriptor("price.currency", "String", null, "true", "Must be ISO 4217")));
+        assertThat(fieldDescriptions.get(3),
+                is(descriptor("discount", "Object", "Discount", "true")));
+        assertThat(fieldDescriptions.get(4),
+                is(descriptor("discount.amount", "Integer", "Amount", "true")));
+        assertThat(fieldDescriptions.get(5),
+                is(descriptor("discount.currency", "String", null, "true", "Must be ISO 4217")));
+        // the nested type is visited once
+        verify(javadocReader, times(1)).resolveFieldComment(Money.class, "amount");
+        verify(constraintReader, times(1)).getConstraintMessages(Money.class, "currency");
+    }
+
+    @Test
+    public void testGenerateDocumentationForCyclicTypes() throws Exception {
+        // given
+        ObjectMapper mapper = createMapper();
+        JavadocReader javadocReader = mock(JavadocReader.class);
+        ConstraintReader constraintReader = mock(ConstraintReader.class);
+
+        FieldDocumentationGenerator generator =
+                new FieldDocumentationGenerator(mapper.writer(), javadocReader, constraintReader);
+
+        // when
+        List<ExtendedFieldDescriptor> treeDescriptions = cast(generator
+                .generateDocumentation(TreeNode.class, mapper.getTypeFactory()));
+        List<ExtendedFieldDescriptor> parentDescriptions = cast(generator
+                .generateDocumentation(Parent.class, mapper.getTypeFactory()));
+
+        // then
+        assertThat(treeDescriptions.size(), is(3));
+        assertThat(treeDescriptions.get(0), is(descriptor("name", "String", null, "true")));
+        assertThat(treeDescriptions.get(1), is(descriptor("parent", "Object", null, "true")));
+        assertThat(treeDescriptions.get(2), is(descriptor("children", "Array", null, "true")));
+        assertThat(parentDescriptions.size(), is(2));
+        assertThat(parentDescriptions.get(0), is(descriptor("child", "Object", null, "true")));
+        assertThat(parentDescriptions.get(1),
+                is(descriptor("child.parent", "Object", null, "true")));
+    }
+
+    @Test
+    public void testGenerateDocumentationWithinBudgets() throws Exception {
+        // given
+        ObjectMapper mapper = createMapper();
+        JavadocReader javadocReader = mock(JavadocReader.class);
+        ConstraintReader constraintReader = mock(ConstraintReader.class);
+        FieldDocumentationVisitorContext depthLimited =
+                new FieldDocumentationVisitorContext(javadocReader, constraintReader, 2, 1000);
+        FieldDocumentationVisitorContext countLimited =
+                new FieldDocumentationVisitorContext(javadocReader, constraintReader, 20, 3);
+
+        // when
+        visit(mapper, FirstLevel.class, depthLimited);
+        visit(mapper, FirstLevel.class, countLimited);
+
+        // then
+        assertThat(depthLimited.isTruncated(), is(true));
+        assertThat(depthLimited.getFields().size(), is(2));
+        assertThat(depthLimited.getFields().get(1).getPath(), is("second.third"));
+        assertThat(countLimited.isTruncated(), is(true));
+        assertThat(countLimited.getFields().size(), is(3));
+        assertThat(countLimited.getFields().get(2).getPath(), is("second.third[].fourth"));
+    }
+
     @Test
     public void testGenerateDocumentationForExternalSerializer() throws Exception {
         // given
@@ -383,6 +479,14 @@ public class FieldDocumentationGeneratorTest {
                 is(descriptor("flags", "Array", null, "true")));
     }
 
+    private void visit(ObjectMapper mapper, Class<?> type,
+            FieldDocumentationVisitorContext context) throws Exception {
+        context.enter(mapper.constructType(type));
+        mapper.writer().acceptJsonFormatVisitor(type,
+                new FieldDocumentationVisitorWrapper(context, null));
+        context.exit();
+    }
+
     private ObjectMapper createMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
@@ -444,6 +548,30 @@ public class FieldDocumentationGeneratorTest {
         private Integer last;
     }
 
+    private static class ReusedTypes {
+        private Money price;
+        private Money discount;
+    }
+
+    private static class Money {
+        private Integer amount;
+        private String currency;
+    }
+
+    private static class TreeNode {
+        private String name;
+        private TreeNode parent;
+        private List<TreeNode> children;
+    }
+
+    private static class Parent {
+        private Child child;
+    }
+
+    private static class Child {
+        private Parent parent;
+    }
+
     private static class ExternalSerializer {
         private BigDecimal bigDecimal;
     }
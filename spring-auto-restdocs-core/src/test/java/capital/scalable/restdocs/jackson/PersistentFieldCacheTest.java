@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jackson;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import capital.scalable.restdocs.cache.DocumentationCache;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentFieldCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void storesFieldsPerTypeAndConfiguration() {
+        PersistentFieldCache cache =
+                new PersistentFieldCache(new DocumentationCache(folder.getRoot()));
+        ObjectMapper mapper = new ObjectMapper();
+        JavaType type = mapper.constructType(Item.class);
+        put(cache, mapper, type);
+
+        // new instance, so that the entry is read from disk
+        cache = new PersistentFieldCache(new DocumentationCache(folder.getRoot()));
+        List<PersistentFieldCache.CachedField> fields = cache.get(mapper, type, 20, 1000);
+        assertThat(fields.size(), is(1));
+        assertThat(fields.get(0).getJsonType(), is("String"));
+        InternalFieldInfo cachedInfo = fields.get(0).toFieldInfo();
+        assertThat(cachedInfo.getJavaBaseClass().equals(Item.class), is(true));
+        assertThat(cachedInfo.getJavaFieldName(), is("name"));
+        assertThat(cachedInfo.getJsonFieldPath(), is("name"));
+
+        ObjectMapper otherMapper = mapper.copy().enable(SerializationFeature.WRAP_ROOT_VALUE);
+        assertThat(cache.get(otherMapper, type, 20, 1000), nullValue());
+        assertThat(cache.get(mapper, mapper.constructType(Other.class), 20, 1000), nullValue());
+        // budgets of the entry differ
+        assertThat(cache.get(mapper, type, 5, 1000), nullValue());
+        assertThat(cache.get(mapper, type, 20, 10), nullValue());
+    }
+
+    @Test
+    public void mappersWithOtherModulesDoNotShareEntries() {
+        PersistentFieldCache cache =
+                new PersistentFieldCache(new DocumentationCache(folder.getRoot()));
+        ObjectMapper mapper = new ObjectMapper().registerModule(new SimpleModule("empty"));
+        JavaType type = mapper.constructType(Item.class);
+        put(cache, mapper, type);
+        assertThat(cache.get(new ObjectMapper().registerModule(new SimpleModule("empty")),
+                type, 20, 1000).size(), is(1));
+
+        SimpleModule itemModule = new SimpleModule("item");
+        itemModule.addSerializer(Item.class, new ToStringSerializer());
+        assertThat(cache.get(new ObjectMapper().registerModule(itemModule), type, 20, 1000),
+                nullValue());
+    }
+
+    @Test
+    public void mappersWithOtherMixInsDoNotShareEntries() {
+        PersistentFieldCache cache =
+                new PersistentFieldCache(new DocumentationCache(folder.getRoot()));
+        ObjectMapper mapper = new ObjectMapper().addMixIn(Item.class, ItemMixIn.class);
+        JavaType type = mapper.constructType(Item.class);
+        put(cache, mapper, type);
+        assertThat(cache.get(new ObjectMapper().addMixIn(Item.class, ItemMixIn.class), type,
+                20, 1000).size(), is(1));
+
+        assertThat(cache.get(new ObjectMapper().addMixIn(Item.class, OtherMixIn.class), type,
+                20, 1000), nullValue());
+        assertThat(cache.get(new ObjectMapper().addMixIn(Other.class, ItemMixIn.class), type,
+                20, 1000), nullValue());
+    }
+
+    @Test
+    public void changedBaseClassWithoutFieldsInvalidatesEntries() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeTrue(compiler != null);
+        String sub = "package fixture; public class Sub extends Base { public String name; }";
+        ClassLoader before = compile(compiler, "before", sub,
+                "package fixture; public class Base { }");
+        ClassLoader after = compile(compiler, "after", sub,
+                "package fixture; public class Base { public String added; }");
+        ObjectMapper mapper = new ObjectMapper();
+        PersistentFieldCache cache =
+                new PersistentFieldCache(new DocumentationCache(folder.getRoot()));
+
+        // only Sub declares a documented field
+        Class<?> subBefore = before.loadClass("fixture.Sub");
+        JavaType type = mapper.constructType(subBefore);
+        InternalFieldInfo info = new InternalFieldInfo(subBefore, "name", "name", false);
+        cache.put(mapper, type, 20, 1000, Collections.singletonList(
+                new PersistentFieldCache.CachedField(info, "String")),
+                Collections.<Class<?>>singletonList(subBefore));
+        assertThat(cache.get(mapper, type, 20, 1000).size(), is(1));
+
+        Class<?> subAfter = after.loadClass("fixture.Sub");
+        assertThat(cache.get(mapper, mapper.constructType(subAfter), 20, 1000), nullValue());
+    }
+
+    private ClassLoader compile(JavaCompiler compiler, String name, String... sources)
+            throws IOException {
+        File sourceDir = folder.newFolder(name + "-sources", "fixture");
+        File classDir = folder.newFolder(name + "-classes");
+        List<String> arguments = new ArrayList<>(Arrays.asList("-d", classDir.getPath()));
+        for (String source : sources) {
+            String className = source.replaceAll(".*public class (\\w+).*", "$1");
+            File file = new File(sourceDir, className + ".java");
+            Files.write(file.toPath(), source.getBytes("UTF-8"));
+            arguments.add(file.getPath());
+        }
+        assertThat(compiler.run(null, null, null, arguments.toArray(new String[0])), is(0));
+        return new URLClassLoader(new URL[]{classDir.toURI().toURL()}, null);
+    }
+
+    private static void put(PersistentFieldCache cache, ObjectMapper mapper, JavaType type) {
+        InternalFieldInfo info = new InternalFieldInfo(Item.class, "name", "name", false);
+        cache.put(mapper, type, 20, 1000, Collections.singletonList(
+                new PersistentFieldCache.CachedField(info, "String")),
+                Collections.<Class<?>>singletonList(Item.class));
+    }
+
+    private static class Item {
+        private String name;
+    }
+
+    private static class Other {
+    }
+
+    private abstract static class ItemMixIn {
+        @JsonProperty("title")
+        private String name;
+    }
+
+    private abstract static class OtherMixIn {
+        @JsonIgnore
+        private String name;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class AbstractJavadocReaderTest {
+
+    @Test
+    public void excludedPackagesAreNotLoaded() {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader(
+                new String[]{"java.", "javax."});
+
+        assertThat(javadocReader.resolveFieldComment(String.class, "value"), is(""));
+        assertThat(javadocReader.resolveFieldComment(BigDecimal.class, "scale"), is(""));
+        assertThat(javadocReader.resolveFieldComment(int.class, "value"), is(""));
+        assertThat(javadocReader.resolveFieldComment(Object[].class, "value"), is(""));
+        assertThat(javadocReader.loaded.isEmpty(), is(true));
+    }
+
+    @Test
+    public void missesAreLoadedOnce() {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader(new String[0]);
+
+        javadocReader.resolveFieldComment(Undocumented.class, "field");
+        javadocReader.resolveMethodComment(Undocumented.class, "method");
+
+        assertThat(javadocReader.loaded.size(), is(1));
+    }
+
+    @Test
+    public void commentsAreInheritedFromSuperclassesAndInterfaces() throws IOException {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader(new String[0]);
+        javadocReader.javadoc(Base.class, "{\"fields\":{\"baseField\":\"Base field\"},"
+                + "\"methods\":{\"getName\":{\"comment\":\"Base name\"}}}");
+        javadocReader.javadoc(Named.class,
+                "{\"methods\":{\"getName\":{\"comment\":\"Interface name\"},"
+                        + "\"getId\":{\"comment\":\"Interface id\","
+                        + "\"parameters\":{\"id\":\"Parameter\"}}}}");
+        javadocReader.javadoc(Sub.class,
+                "{\"methods\":{\"getName\":{\"comment\":\"Sub name\"}}}");
+
+        assertThat(javadocReader.resolveMethodComment(Sub.class, "getName"), is("Sub name"));
+        assertThat(javadocReader.resolveMethodComment(Base.class, "getName"), is("Base name"));
+        assertThat(javadocReader.resolveFieldComment(Sub.class, "baseField"), is("Base field"));
+        assertThat(javadocReader.resolveMethodComment(Sub.class, "getId"), is("Interface id"));
+        assertThat(javadocReader.resolveMethodParameterComment(Sub.class, "getId", "id"),
+                is("Parameter"));
+        assertThat(javadocReader.resolveMethodComment(Sub.class, "unknown"), is(""));
+    }
+
+    @Test
+    public void propertyCommentsFoldGettersAndFields() throws IOException {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader(new String[0]);
+        javadocReader.javadoc(Base.class, "{\"fields\":{\"uri\":\"Field uri\","
+                + "\"secured\":\"Field secured\",\"type\":\"Field type\"},"
+                + "\"methods\":{\"getType\":{\"comment\":\"Getter type\"},"
+                + "\"getName\":{\"comment\":\"Getter name\"}}}");
+
+        // field comment for field and getters
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "uri"), is("Field uri"));
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "getUri"), is("Field uri"));
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "isSecured"),
+                is("Field secured"));
+        // getter comment wins over field comment for the getter, but not for the field
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "getType"),
+                is("Getter type"));
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "type"), is("Field type"));
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "getName"),
+                is("Getter name"));
+        // inherited
+        assertThat(javadocReader.resolvePropertyComment(Sub.class, "getUri"), is("Field uri"));
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "unknown"), is(""));
+    }
+
+    @Test
+    public void propertyCommentsOfOtherReaders() {
+        JavadocReader reader = mock(JavadocReader.class);
+        when(reader.resolveFieldComment(Base.class, "name")).thenReturn("Field name");
+        when(reader.resolveMethodComment(Base.class, "getType")).thenReturn("Getter type");
+
+        AbstractJavadocReader javadocReader = AbstractJavadocReader.of(reader);
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "name"), is("Field name"));
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "getName"),
+                is("Field name"));
+        assertThat(javadocReader.resolvePropertyComment(Base.class, "getType"),
+                is("Getter type"));
+
+        RecordingJavadocReader ownReader = new RecordingJavadocReader(new String[0]);
+        assertThat(AbstractJavadocReader.of(ownReader),
+                sameInstance((AbstractJavadocReader) ownReader));
+    }
+
+    @Test
+    public void hierarchyIsWalkedOnce() throws IOException {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader(new String[0]);
+
+        assertThat(javadocReader.hierarchy(Sub.class),
+                is(Arrays.<Class<?>>asList(Sub.class, Base.class, Named.class)));
+
+        javadocReader.resolveMethodComment(Sub.class, "getName");
+        javadocReader.resolveMethodComment(Sub.class, "getName");
+        javadocReader.resolveFieldComment(Sub.class, "name");
+        javadocReader.resolveFieldComment(Sub.class, "name");
+
+        assertThat(javadocReader.loaded.size(), is(3));
+        assertThat(javadocReader.resolveCount, is(2));
+    }
+
+    @Test
+    public void supertypesOfFlattenedClassesAreNotLoaded() throws IOException {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader(new String[0]);
+        javadocReader.javadoc(Sub.class, "{\"fields\":{\"baseField\":\"Base field\"},"
+                + "\"methods\":{\"getName\":{\"comment\":\"Sub name\"}},"
+                + "\"flattened\":true,\"inherited\":[\"" + Base.class.getCanonicalName()
+                + "\",\"" + Named.class.getCanonicalName() + "\"]}");
+
+        assertThat(javadocReader.resolveFieldComment(Sub.class, "baseField"), is("Base field"));
+        assertThat(javadocReader.resolveMethodComment(Sub.class, "getId"), is(""));
+        assertThat(javadocReader.resolveMethodParameterComment(Sub.class, "getId", "id"),
+                is(""));
+        assertThat(javadocReader.resolvePropertyComment(Sub.class, "name"), is(""));
+
+        assertThat(javadocReader.loaded,
+                is(Collections.singletonList(Sub.class.getCanonicalName())));
+    }
+
+    @Test
+    public void supertypesNotInheritedByFlattenedClassesAreLoaded() throws IOException {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader(new String[0]);
+        // Base is e.g. part of another module and was not flattened into Sub
+        javadocReader.javadoc(Sub.class, "{\"methods\":{\"getName\":{\"comment\":\"\"}},"
+                + "\"flattened\":true,\"inherited\":[\"" + Named.class.getCanonicalName()
+                + "\"]}");
+        javadocReader.javadoc(Base.class, "{\"fields\":{\"baseField\":\"Base field\"}}");
+
+        assertThat(javadocReader.resolveFieldComment(Sub.class, "baseField"), is("Base field"));
+        assertThat(javadocReader.resolveMethodComment(Sub.class, "getName"), is(""));
+
+        assertThat(javadocReader.loaded, is(Arrays.asList(Sub.class.getCanonicalName(),
+                Base.class.getCanonicalName())));
+    }
+
+    private static class RecordingJavadocReader extends AbstractJavadocReader {
+        private final List<String> loaded = new ArrayList<>();
+        private final Map<Class<?>, ClassJavadoc> javadocs = new HashMap<>();
+        private int resolveCount;
+
+        RecordingJavadocReader(String[] excludedPackages) {
+            super(new ClassJavadocCache(100), excludedPackages);
+        }
+
+        @Override
+        protected ClassJavadoc loadClass(Class<?> clazz, String className) {
+            loaded.add(className);
+            ClassJavadoc classJavadoc = javadocs.get(clazz);
+            return classJavadoc != null ? classJavadoc : ClassJavadoc.EMPTY;
+        }
+
+        @Override
+        ClassJavadoc getClass(Class<?> clazz) {
+            if (clazz == Sub.class) {
+                resolveCount++;
+            }
+            return super.getClass(clazz);
+        }
+
+        void javadoc(Class<?> clazz, String json) throws IOException {
+            javadocs.put(clazz, CLASS_JAVADOC_READER.<ClassJavadoc>readValue(json));
+        }
+    }
+
+    private static class Undocumented {
+    }
+
+    private interface Named {
+        String getName();
+    }
+
+    private static class Base implements Named {
+        private String baseField;
+
+        @Override
+        public String getName() {
+            return null;
+        }
+    }
+
+    private static class Sub extends Base {
+        @Override
+        public String getName() {
+            return null;
+        }
+
+        public String getId(String id) {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class ClassJavadocCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedEntriesAboveMaxWeight() throws IOException {
+        ClassJavadocCache cache = new ClassJavadocCache(6);
+        ClassJavadoc a = classJavadoc("{\"fields\":{\"a\":\"A\"}}"); // weight 2
+        ClassJavadoc b = classJavadoc("{\"fields\":{\"b\":\"B\"}}"); // weight 2
+        ClassJavadoc c = classJavadoc(
+                "{\"methods\":{\"c\":{\"parameters\":{\"p\":\"P\"}}}}"); // weight 3
+
+        cache.put("a", a);
+        cache.put("b", b);
+        cache.get("a");
+        cache.put("c", c);
+
+        assertThat(cache.get("a"), sameInstance(a));
+        assertThat(cache.get("b"), nullValue());
+        assertThat(cache.get("c"), sameInstance(c));
+        assertThat(cache.weight(), is(5L));
+    }
+
+    @Test
+    public void missesWeighOne() {
+        ClassJavadocCache cache = new ClassJavadocCache(2);
+        cache.put("a", ClassJavadoc.EMPTY);
+        cache.put("b", ClassJavadoc.EMPTY);
+        cache.put("c", ClassJavadoc.EMPTY);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get("a"), nullValue());
+        assertThat(cache.get("c"), sameInstance(ClassJavadoc.EMPTY));
+    }
+
+    @Test
+    public void keepsEntryHeavierThanMaxWeight() throws IOException {
+        ClassJavadocCache cache = new ClassJavadocCache(1);
+        ClassJavadoc a = classJavadoc("{\"fields\":{\"a\":\"A\"}}");
+        cache.put("a", a);
+
+        assertThat(cache.get("a"), sameInstance(a));
+    }
+
+    @Test
+    public void resolvedCommentsWeighOneAndAreEvictedWithTheirClass() throws IOException {
+        ClassJavadocCache cache = new ClassJavadocCache(5);
+        ClassJavadoc a = classJavadoc("{\"fields\":{\"a\":\"A\"}}"); // weight 2
+        cache.put("a", a);
+        cache.putResolved("a", "a", "A");
+        cache.putResolved("a", "a", "A");
+        cache.putResolved("missing", "b", "B");
+
+        assertThat(cache.getResolved("a", "a"), is("A"));
+        assertThat(cache.getResolved("missing", "b"), nullValue());
+        assertThat(cache.weight(), is(3L));
+
+        cache.put("b", ClassJavadoc.EMPTY);
+        cache.putResolved("b", "b", "");
+        cache.putResolved("b", "c", "");
+
+        assertThat(cache.get("a"), nullValue());
+        assertThat(cache.getResolved("a", "a"), nullValue());
+        assertThat(cache.weight(), is(3L));
+    }
+
+    @Test
+    public void clearResolvedKeepsJavadoc() throws IOException {
+        ClassJavadocCache cache = new ClassJavadocCache(100);
+        ClassJavadoc a = classJavadoc("{\"fields\":{\"a\":\"A\"}}");
+        cache.put("a", a);
+        cache.putResolved("a", "a", "A");
+
+        cache.clearResolved();
+
+        assertThat(cache.get("a"), sameInstance(a));
+        assertThat(cache.getResolved("a", "a"), nullValue());
+        assertThat(cache.weight(), is(2L));
+    }
+
+    @Test
+    public void segmentsShareMaxWeight() {
+        ClassJavadocCache cache = new ClassJavadocCache(64, 16);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("class" + i, ClassJavadoc.EMPTY);
+        }
+
+        assertThat(cache.weight() <= 64, is(true));
+        assertThat(cache.size() >= 16, is(true));
+        assertThat(cache.get("class999"), sameInstance(ClassJavadoc.EMPTY));
+    }
+
+    private static ClassJavadoc classJavadoc(String json) throws IOException {
+        return AbstractJavadocReader.CLASS_JAVADOC_READER.readValue(json);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ClassJavadocTest {
+
+    private static final String BOILERPLATE = "The identifier of the resource. "
+            + "It is assigned by the server when the resource is created and never changes.";
+
+    @Test
+    public void lookupsOnSortedArrays() throws IOException {
+        ClassJavadoc classJavadoc = classJavadoc("{\"comment\":\"Class\","
+                + "\"fields\":{\"b\":\"B\",\"a\":\"A\",\"c\":\" \"},"
+                + "\"methods\":{\"m\":{\"comment\":\"M\",\"parameters\":{\"p\":\"P\"}}}}");
+
+        assertThat(classJavadoc.getClassComment(), is("Class"));
+        assertThat(classJavadoc.getFieldComment("a"), is("A"));
+        assertThat(classJavadoc.getFieldComment("b"), is("B"));
+        assertThat(classJavadoc.getFieldComment("c"), is(""));
+        assertThat(classJavadoc.getFieldComment("d"), is(""));
+        assertThat(classJavadoc.getMethodComment("m"), is("M"));
+        assertThat(classJavadoc.getMethodParameterComment("m", "p"), is("P"));
+        assertThat(classJavadoc.getMethodParameterComment("m", "q"), is(""));
+        // blank comments are not held
+        assertThat(classJavadoc.weight(), is(5));
+    }
+
+    @Test
+    public void commentsAreDeduplicatedAcrossClasses() throws IOException {
+        ClassJavadoc first = classJavadoc(json(0));
+        ClassJavadoc second = classJavadoc(json(1));
+
+        assertThat(first.getFieldComment("id"), is(BOILERPLATE));
+        assertThat(second.getFieldComment("id"), sameInstance(first.getFieldComment("id")));
+        assertThat(second.getMethodParameterComment("setId", "id"),
+                sameInstance(first.getFieldComment("id")));
+    }
+
+    @Test
+    public void commentsOfManyClassesShareOneInstance() throws IOException {
+        List<ClassJavadoc> classes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            classes.add(classJavadoc(json(i)));
+        }
+
+        // every copy parsed from JSON is replaced by the first one
+        String boilerplate = classes.get(0).getFieldComment("field0");
+        for (ClassJavadoc classJavadoc : classes) {
+            for (int field = 0; field < 10; field++) {
+                assertThat(classJavadoc.getFieldComment("field" + field),
+                        sameInstance(boilerplate));
+            }
+            assertThat(classJavadoc.getPropertyComment("getId"), sameInstance(boilerplate));
+            assertThat(classJavadoc.getMethodParameterComment("setId", "id"),
+                    sameInstance(boilerplate));
+        }
+    }
+
+    @Test
+    public void deduplicatorHoldsEachValueOnce() {
+        StringDeduplicator strings = new StringDeduplicator();
+        List<String> canonical = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            canonical.add(strings.deduplicate(new String(BOILERPLATE)));
+            canonical.add(strings.deduplicate(new StringBuilder("Class ").append(i % 10)
+                    .toString()));
+        }
+
+        assertThat(strings.size(), is(11));
+        assertThat(canonical.get(198), sameInstance(canonical.get(0)));
+        assertThat(canonical.get(21), sameInstance(canonical.get(1)));
+    }
+
+    private static String json(int i) {
+        StringBuilder json = new StringBuilder("{\"comment\":\"Class " + i + "\",\"fields\":{");
+        for (int field = 0; field < 10; field++) {
+            json.append("\"field").append(field).append("\":\"").append(BOILERPLATE)
+                    .append("\",");
+        }
+        json.append("\"id\":\"").append(BOILERPLATE).append("\"},");
+        json.append("\"methods\":{\"setId\":{\"comment\":\"Sets the id.\",")
+                .append("\"parameters\":{\"id\":\"").append(BOILERPLATE).append("\"}}}}");
+        return json.toString();
+    }
+
+    private static ClassJavadoc classJavadoc(String json) throws IOException {
+        return AbstractJavadocReader.CLASS_JAVADOC_READER.readValue(json);
+    }
+}
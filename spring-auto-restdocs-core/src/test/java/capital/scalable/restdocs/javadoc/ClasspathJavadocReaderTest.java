@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClasspathJavadocReaderTest {
+
+    private static final String PACKAGE_DIR = "javadoc/capital/scalable/restdocs/javadoc/";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private ClassLoader classLoader;
+
+    @Before
+    public void setUp() throws IOException {
+        File dir = folder.newFolder("classes");
+        File packageDir = new File(dir, PACKAGE_DIR);
+        packageDir.mkdirs();
+        write(new File(packageDir, "ClasspathJavadocReaderTest.DirType.json"),
+                "{\"fields\":{\"dirField\":\"Directory field\"}}");
+        write(new File(packageDir, "ClasspathJavadocReaderTest.SharedType.json"),
+                "{\"fields\":{\"sharedField\":\"From directory\"}}");
+
+        File jar = folder.newFile("javadoc.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("javadoc/"));
+            out.putNextEntry(
+                    new ZipEntry(PACKAGE_DIR + "ClasspathJavadocReaderTest.JarType.json"));
+            out.write("{\"methods\":{\"jarMethod\":{\"comment\":\"Jar method\"}}}"
+                    .getBytes("UTF-8"));
+            out.putNextEntry(
+                    new ZipEntry(PACKAGE_DIR + "ClasspathJavadocReaderTest.SharedType.json"));
+            out.write("{\"fields\":{\"sharedField\":\"From jar\"}}".getBytes("UTF-8"));
+            out.putNextEntry(new ZipEntry("other/capital/scalable/restdocs/javadoc/"
+                    + "ClasspathJavadocReaderTest.OtherType.json"));
+            out.write("{\"fields\":{\"otherField\":\"Other field\"}}".getBytes("UTF-8"));
+            out.putNextEntry(new ZipEntry("empty/"));
+            out.putNextEntry(new ZipEntry("empty/README.txt"));
+            out.write("No Javadoc".getBytes("UTF-8"));
+        }
+
+        classLoader = new URLClassLoader(new URL[]{dir.toURI().toURL(), jar.toURI().toURL()},
+                null);
+    }
+
+    @Test
+    public void resolveCommentsFromDirectoryAndJar() {
+        JavadocReader javadocReader = new ClasspathJavadocReader("classpath:javadoc", classLoader);
+
+        assertThat(javadocReader.resolveFieldComment(DirType.class, "dirField"),
+                equalTo("Directory field"));
+        assertThat(javadocReader.resolveMethodComment(JarType.class, "jarMethod"),
+                equalTo("Jar method"));
+    }
+
+    @Test
+    public void firstClasspathEntryWins() {
+        JavadocReader javadocReader = new ClasspathJavadocReader("javadoc/", classLoader);
+
+        assertThat(javadocReader.resolveFieldComment(SharedType.class, "sharedField"),
+                equalTo("From directory"));
+    }
+
+    @Test
+    public void onlyConfiguredLocationIsIndexed() {
+        JavadocReader javadocReader = new ClasspathJavadocReader("classpath:javadoc", classLoader);
+
+        assertThat(javadocReader.resolveFieldComment(OtherType.class, "otherField"), is(""));
+    }
+
+    @Test
+    public void jarWithoutJavadocIsClosed() {
+        ClasspathJavadocReader javadocReader =
+                new ClasspathJavadocReader("classpath:empty", classLoader);
+
+        assertThat(javadocReader.getSources().isEmpty(), is(true));
+        assertThat(javadocReader.getOpenJars().isEmpty(), is(true));
+    }
+
+    @Test
+    public void closeReleasesJars() throws IOException {
+        ClasspathJavadocReader javadocReader =
+                new ClasspathJavadocReader("classpath:javadoc", classLoader);
+        assertThat(javadocReader.getOpenJars().size(), is(1));
+
+        javadocReader.close();
+
+        assertThat(javadocReader.getOpenJars().isEmpty(), is(true));
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+    }
+
+    private static class DirType {
+    }
+
+    private static class JarType {
+    }
+
+    private static class SharedType {
+    }
+
+    private static class OtherType {
+    }
+}
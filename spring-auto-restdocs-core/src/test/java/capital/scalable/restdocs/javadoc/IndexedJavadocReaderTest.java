@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexedJavadocReaderTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        JavadocReaderRegistry.clear();
+    }
+
+    @Test
+    public void resolveComments() throws IOException {
+        JavadocReader javadocReader = new IndexedJavadocReader(writeIndex());
+
+        assertThat(javadocReader.resolveFieldComment(SimpleType.class, "simpleField"),
+                equalTo("Simple field comment"));
+        assertThat(javadocReader.resolveMethodComment(SimpleType.class, "simpleMethod"),
+                equalTo("Simple method comment"));
+        assertThat(javadocReader.resolveMethodParameterComment(SimpleType.class, "simpleMethod",
+                "simpleParameter"), equalTo("Simple parameter comment"));
+        assertThat(javadocReader.resolveFieldComment(OtherType.class, "otherField"),
+                equalTo("Other field comment"));
+    }
+
+    @Test
+    public void classNotInIndex() throws IOException {
+        JavadocReader javadocReader = new IndexedJavadocReader(writeIndex());
+
+        assertThat(javadocReader.resolveFieldComment(NotExisting.class, "simpleField"), is(""));
+        assertThat(javadocReader.resolveMethodComment(NotExisting.class, "simpleMethod"), is(""));
+    }
+
+    @Test
+    public void invalidIndexFile() throws IOException {
+        File file = folder.newFile();
+        JavadocReader javadocReader = new IndexedJavadocReader(file);
+
+        assertThat(javadocReader.resolveFieldComment(SimpleType.class, "simpleField"), is(""));
+    }
+
+    @Test
+    public void registryDetectsIndexFile() throws IOException {
+        File file = writeIndex();
+        JavadocReader javadocReader =
+                JavadocReaderRegistry.getJavadocReader(file.getParentFile().getPath());
+        assertThat(javadocReader, instanceOf(IndexedJavadocReader.class));
+    }
+
+    private File writeIndex() throws IOException {
+        byte[] simple = ("{\"comment\":\"\",\"fields\":{\"simpleField\":\"Simple field comment\"},"
+                + "\"methods\":{\"simpleMethod\":{\"comment\":\"Simple method comment\","
+                + "\"parameters\":{\"simpleParameter\":\"Simple parameter comment\"}}}}")
+                .getBytes("UTF-8");
+        byte[] other = "{\"fields\":{\"otherField\":\"Other field comment\"}}".getBytes("UTF-8");
+
+        File file = new File(folder.getRoot(), IndexedJavadocReader.INDEX_FILE_NAME);
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(0x53415244);
+            out.writeInt(1);
+            out.writeInt(2);
+            out.writeUTF(SimpleType.class.getCanonicalName());
+            out.writeInt(0);
+            out.writeInt(simple.length);
+            out.writeUTF(OtherType.class.getCanonicalName());
+            out.writeInt(simple.length);
+            out.writeInt(other.length);
+            out.write(simple);
+            out.write(other);
+        }
+        return file;
+    }
+
+    private static class SimpleType {
+        private String simpleField;
+
+        private void simpleMethod(String simpleParameter) {
+        }
+    }
+
+    private static class OtherType {
+        private String otherField;
+    }
+
+    private static class NotExisting {
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JavadocJsonWatcherTest {
+
+    private static final String PACKAGE_DIR = "capital/scalable/restdocs/javadoc/";
+    private static final long TIMEOUT_MILLIS = 20000;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private JavadocReaderImpl javadocReader;
+
+    @Before
+    public void setUp() throws IOException {
+        write("JavadocJsonWatcherTest.WatchedType.json",
+                "{\"fields\":{\"field\":\"Old comment\"}}");
+        write("JavadocJsonWatcherTest.OtherType.json",
+                "{\"fields\":{\"field\":\"Other comment\"}}");
+        javadocReader = new JavadocReaderImpl(folder.getRoot().getPath(), true);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        javadocReader.close();
+    }
+
+    @Test
+    public void changedFileIsReadAgain() throws Exception {
+        assertThat(javadocReader.resolveFieldComment(WatchedType.class, "field"),
+                equalTo("Old comment"));
+        assertThat(javadocReader.resolveFieldComment(OtherType.class, "field"),
+                equalTo("Other comment"));
+
+        write("JavadocJsonWatcherTest.WatchedType.json",
+                "{\"fields\":{\"field\":\"New comment\"}}");
+
+        assertThat(awaitFieldComment(WatchedType.class, "New comment"), is(true));
+        // other classes stay cached
+        assertThat(javadocReader.getStats().getFilesRead(), is(3L));
+    }
+
+    @Test
+    public void createdFileIsRead() throws Exception {
+        assertThat(javadocReader.resolveFieldComment(NewType.class, "field"), equalTo(""));
+
+        write("JavadocJsonWatcherTest.NewType.json", "{\"fields\":{\"field\":\"Created\"}}");
+
+        assertThat(awaitFieldComment(NewType.class, "Created"), is(true));
+    }
+
+    @Test
+    public void fileInCreatedDirectoryIsRead() throws Exception {
+        assertThat(javadocReader.resolveFieldComment(NewType.class, "field"), equalTo(""));
+        File packageDir = new File(folder.getRoot(), PACKAGE_DIR);
+        File movedDir = new File(folder.getRoot(), "moved");
+        assertThat(packageDir.getParentFile().renameTo(movedDir), is(true));
+
+        write("JavadocJsonWatcherTest.NewType.json", "{\"fields\":{\"field\":\"Created\"}}");
+
+        assertThat(awaitFieldComment(NewType.class, "Created"), is(true));
+    }
+
+    private boolean awaitFieldComment(Class<?> type, String comment)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (comment.equals(javadocReader.resolveFieldComment(type, "field"))) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        File file = new File(folder.getRoot(), PACKAGE_DIR + fileName);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+    }
+
+    private static class WatchedType {
+    }
+
+    private static class OtherType {
+    }
+
+    private static class NewType {
+    }
+}
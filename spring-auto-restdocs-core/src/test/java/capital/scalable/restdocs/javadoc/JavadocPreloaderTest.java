@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+public class JavadocPreloaderTest {
+
+    @Test
+    public void reachableTypes() throws Exception {
+        Set<Class<?>> types = JavadocPreloader.reachableTypes(new RecordingJavadocReader(),
+                handlerMethods());
+
+        assertThat(types, hasItems(TestController.class, Request.class, Response.class,
+                Item.class, Base.class, SubA.class, SubB.class, Money.class));
+        assertThat(types.contains(Service.class), is(false));
+        assertThat(types.contains(BigDecimal.class), is(false));
+        assertThat(types.contains(String.class), is(false));
+    }
+
+    @Test
+    public void excludedPackagesAreNotFollowed() throws Exception {
+        Set<Class<?>> types = JavadocPreloader.reachableTypes(new RecordingJavadocReader(),
+                handlerMethods());
+
+        assertThat(types.contains(ResponseEntity.class), is(false));
+        assertThat(types.contains(HttpHeaders.class), is(false));
+        assertThat(types.contains(HttpStatus.class), is(false));
+    }
+
+    @Test
+    public void preloadLoadsAllReachableTypes() throws Exception {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader();
+
+        JavadocPreloader.preload(javadocReader, handlerMethods(), 4);
+
+        assertThat(javadocReader.loaded, hasItems(name(TestController.class),
+                name(Response.class), name(Item.class), name(SubB.class)));
+        assertThat(javadocReader.getStats().getCacheMisses(),
+                is((long) javadocReader.loaded.size()));
+    }
+
+    @Test
+    public void preloadContinuesAfterFailures() throws Exception {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader();
+        javadocReader.failing = name(Response.class);
+
+        JavadocPreloader.preload(javadocReader, handlerMethods(), 1);
+
+        assertThat(javadocReader.loaded, hasItems(name(TestController.class),
+                name(Item.class), name(Money.class), name(SubB.class)));
+    }
+
+    @Test
+    public void preloadPackagesFindsControllers() {
+        RecordingJavadocReader javadocReader = new RecordingJavadocReader();
+
+        JavadocPreloader.preloadPackages(javadocReader, 2, "capital.scalable.restdocs.javadoc");
+
+        assertThat(javadocReader.loaded, hasItems(name(TestController.class),
+                name(Money.class)));
+    }
+
+    private static List<Method> handlerMethods() throws NoSuchMethodException {
+        return asList(
+                TestController.class.getMethod("create", String.class, Request.class),
+                TestController.class.getMethod("get", String.class));
+    }
+
+    private static String name(Class<?> clazz) {
+        return clazz.getCanonicalName();
+    }
+
+    private static class RecordingJavadocReader extends AbstractJavadocReader {
+        private final Set<String> loaded =
+                Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        private volatile String failing;
+
+        RecordingJavadocReader() {
+            super(new ClassJavadocCache(100), new String[]{"java.", "org.springframework."});
+        }
+
+        @Override
+        protected ClassJavadoc loadClass(Class<?> clazz, String className) {
+            if (className.equals(failing)) {
+                throw new IllegalStateException("Broken Javadoc of " + className);
+            }
+            loaded.add(className);
+            return ClassJavadoc.EMPTY;
+        }
+    }
+
+    @RestController
+    static class TestController {
+        private Service service;
+
+        @RequestMapping("/items")
+        public Response create(@PathVariable String id, @RequestBody Request request) {
+            return null;
+        }
+
+        @RequestMapping("/items/{id}")
+        public ResponseEntity<Map<String, List<Item>>> get(@PathVariable String id) {
+            return null;
+        }
+    }
+
+    static class Service {
+    }
+
+    static class Request {
+        private Base base;
+    }
+
+    static class Response {
+        private Item[] items;
+        private BigDecimal total;
+    }
+
+    static class Item {
+        private String name;
+
+        public Money getPrice() {
+            return null;
+        }
+    }
+
+    static class Money {
+    }
+
+    @JsonSubTypes({@JsonSubTypes.Type(SubA.class), @JsonSubTypes.Type(SubB.class)})
+    abstract static class Base {
+    }
+
+    static class SubA extends Base {
+    }
+
+    static class SubB extends Base {
+    }
+}
@@ -37,6 +37,14 @@ public class JavadocReaderImplIntegrationTest {
         assertThat(comment, equalTo("mandatory param"));
     }
 
+    @Test
+    public void resolveCommentsWithCharactersToEscape() {
+        JavadocReader javadocReader = new JavadocReaderImpl(); // using dir from pom.xml
+        String comment = javadocReader.resolveFieldComment(IntegrationType.class, "escapedField");
+        assertThat(comment, equalTo("Path C:\\temp\\new, \"quoted\",\ttabbed\n "
+                + "and non-ASCII: \u00e4\u00f6\u00fc \u20ac"));
+    }
+
     /**
      * A complex integration type
      */
@@ -47,6 +55,12 @@ public class JavadocReaderImplIntegrationTest {
          */
         private String usefulField;
 
+        /**
+         * Path C:\temp\new, "quoted",	tabbed
+         * and non-ASCII: äöü €
+         */
+        private String escapedField;
+
         /**
          * Very useful method
          *
@@ -20,6 +20,10 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
 import org.junit.Test;
 
 public class JavadocReaderImplTest {
@@ -80,6 +84,25 @@ public class JavadocReaderImplTest {
         assertThat(comment, is(""));
     }
 
+    @Test
+    public void stats() throws IOException {
+        JavadocReaderImpl javadocReader = new JavadocReaderImpl(SOURCE_DIR);
+
+        javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        javadocReader.resolveMethodComment(SimpleType.class, "simpleMethod");
+        javadocReader.resolveFieldComment(NotExisting.class, "simpleField");
+        javadocReader.resolveFieldComment(String.class, "value");
+
+        JavadocReaderStats stats = javadocReader.getStats();
+        assertThat(stats.getCacheMisses(), is(2L));
+        assertThat(stats.getCacheHits(), is(1L));
+        assertThat(stats.getFilesRead(), is(1L));
+        assertThat(stats.getBytesRead(), is(Files.size(new File(SOURCE_DIR,
+                "capital/scalable/restdocs/javadoc/JavadocReaderImplTest.SimpleType.json")
+                .toPath())));
+        assertThat(stats.getMissingClasses(), is(1L));
+    }
+
     // json file in src/test/resources/json
     private static class SimpleType {
         private String simpleField;
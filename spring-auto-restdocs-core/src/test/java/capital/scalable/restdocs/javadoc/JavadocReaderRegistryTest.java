@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class JavadocReaderRegistryTest {
+
+    private static final String SOURCE_DIR = JavadocReaderRegistryTest.class.
+            getClassLoader().getResource("json").getPath();
+
+    @After
+    public void tearDown() {
+        JavadocReaderRegistry.clear();
+    }
+
+    @Test
+    public void sameDirectorySharesReader() {
+        JavadocReader reader = JavadocReaderRegistry.getJavadocReader(SOURCE_DIR);
+        assertThat(JavadocReaderRegistry.getJavadocReader(SOURCE_DIR), sameInstance(reader));
+        assertThat(JavadocReaderRegistry.getJavadocReader(SOURCE_DIR + "/"),
+                sameInstance(reader));
+    }
+
+    @Test
+    public void differentDirectoriesUseDifferentReaders() {
+        JavadocReader reader = JavadocReaderRegistry.getJavadocReader(SOURCE_DIR);
+        assertThat(JavadocReaderRegistry.getJavadocReader(SOURCE_DIR + "/other"),
+                not(sameInstance(reader)));
+    }
+
+    @Test
+    public void clearCreatesNewReader() {
+        JavadocReader reader = JavadocReaderRegistry.getJavadocReader(SOURCE_DIR);
+        JavadocReaderRegistry.clear();
+        assertThat(JavadocReaderRegistry.getJavadocReader(SOURCE_DIR), not(sameInstance(reader)));
+    }
+}
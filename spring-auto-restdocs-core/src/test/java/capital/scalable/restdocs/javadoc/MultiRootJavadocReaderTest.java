@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MultiRootJavadocReaderTest {
+
+    private static final String PACKAGE_DIR = "capital/scalable/restdocs/javadoc/";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File firstRoot;
+    private File secondRoot;
+
+    @Before
+    public void setUp() throws IOException {
+        firstRoot = folder.newFolder("first");
+        secondRoot = folder.newFolder("second");
+        write(firstRoot, "MultiRootJavadocReaderTest.FirstType.json",
+                "{\"fields\":{\"firstField\":\"First field\"}}");
+        write(firstRoot, "MultiRootJavadocReaderTest.SharedType.json",
+                "{\"fields\":{\"sharedField\":\"From first\"}}");
+        write(secondRoot, "MultiRootJavadocReaderTest.SecondType.json",
+                "{\"methods\":{\"secondMethod\":{\"comment\":\"Second method\"}}}");
+        write(secondRoot, "MultiRootJavadocReaderTest.SharedType.json",
+                "{\"fields\":{\"sharedField\":\"From second\"}}");
+    }
+
+    @After
+    public void tearDown() {
+        JavadocReaderRegistry.clear();
+    }
+
+    @Test
+    public void resolveCommentsFromAllRoots() {
+        JavadocReader javadocReader = new MultiRootJavadocReader(
+                Arrays.asList(firstRoot.getPath(), secondRoot.getPath()));
+
+        assertThat(javadocReader.resolveFieldComment(FirstType.class, "firstField"),
+                equalTo("First field"));
+        assertThat(javadocReader.resolveMethodComment(SecondType.class, "secondMethod"),
+                equalTo("Second method"));
+        assertThat(javadocReader.resolveFieldComment(NotExisting.class, "field"), is(""));
+    }
+
+    @Test
+    public void firstRootWins() {
+        JavadocReader javadocReader = new MultiRootJavadocReader(
+                Arrays.asList(secondRoot.getPath(), firstRoot.getPath()));
+
+        assertThat(javadocReader.resolveFieldComment(SharedType.class, "sharedField"),
+                equalTo("From second"));
+    }
+
+    @Test
+    public void missingRootIsSkipped() {
+        JavadocReader javadocReader = new MultiRootJavadocReader(Arrays.asList(
+                new File(folder.getRoot(), "missing").getPath(), firstRoot.getPath()));
+
+        assertThat(javadocReader.resolveFieldComment(SharedType.class, "sharedField"),
+                equalTo("From first"));
+    }
+
+    @Test
+    public void registryMergesCommaSeparatedRoots() {
+        JavadocReader javadocReader = JavadocReaderRegistry.getJavadocReader(
+                firstRoot.getPath() + ", " + secondRoot.getPath());
+
+        assertThat(javadocReader, instanceOf(MultiRootJavadocReader.class));
+        assertThat(javadocReader.resolveMethodComment(SecondType.class, "secondMethod"),
+                equalTo("Second method"));
+        assertThat(JavadocReaderRegistry.getJavadocReader(
+                firstRoot.getPath() + "," + secondRoot.getPath()), is(javadocReader));
+    }
+
+    private static void write(File root, String fileName, String content) throws IOException {
+        File file = new File(root, PACKAGE_DIR + fileName);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+    }
+
+    private static class FirstType {
+    }
+
+    private static class SecondType {
+    }
+
+    private static class SharedType {
+    }
+
+    private static class NotExisting {
+    }
+}
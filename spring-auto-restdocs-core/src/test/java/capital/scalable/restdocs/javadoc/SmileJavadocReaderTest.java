@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.javadoc;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SmileJavadocReaderTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String ESCAPED = "Path C:\\temp\\new, \"quoted\",\ttabbed\n "
+            + "and non-ASCII: \u00e4\u00f6\u00fc \u20ac";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void resolveCommentsFromSmile() throws IOException {
+        // same tokens as the doclet writes with -smile, see SmileWriter
+        SmileFixture smile = new SmileFixture().beginObject()
+                .name("comment").value("Documented class")
+                .name("fields").beginObject()
+                .name("usefulField").value("Very useful field")
+                .name("escapedField").value(ESCAPED)
+                .name("emptyField").value("")
+                .endObject()
+                .name("methods").beginObject()
+                .name("dummyMethod").beginObject()
+                .name("comment").value("Dummy \u00e4")
+                .name("parameters").beginObject()
+                .name("kindaParameter").value("mandatory param")
+                .endObject()
+                .endObject()
+                .endObject()
+                .name("flattened").value(false)
+                .endObject();
+        writeJavadoc(Documented.class, smile.toByteArray());
+
+        JavadocReader javadocReader = new JavadocReaderImpl(folder.getRoot().getPath());
+
+        assertThat(javadocReader.resolveFieldComment(Documented.class, "usefulField"),
+                equalTo("Very useful field"));
+        assertThat(javadocReader.resolveFieldComment(Documented.class, "escapedField"),
+                equalTo(ESCAPED));
+        assertThat(javadocReader.resolveFieldComment(Documented.class, "emptyField"), is(""));
+        assertThat(javadocReader.resolveMethodComment(Documented.class, "dummyMethod"),
+                equalTo("Dummy \u00e4"));
+        assertThat(javadocReader.resolveMethodParameterComment(Documented.class,
+                "dummyMethod", "kindaParameter"), equalTo("mandatory param"));
+    }
+
+    private void writeJavadoc(Class<?> clazz, byte[] content) throws IOException {
+        String packageDir = clazz.getPackage().getName().replace('.', File.separatorChar);
+        String simpleName = clazz.getCanonicalName()
+                .substring(clazz.getPackage().getName().length() + 1);
+        File file = new File(folder.getRoot(), packageDir + File.separator + simpleName + ".json");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content);
+    }
+
+    private static class Documented {
+    }
+
+    /**
+     * Writes the subset of Smile written by the doclet: a header without shared names
+     * and strings by length, without back references.
+     */
+    private static class SmileFixture {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SmileFixture() {
+            out.write(':');
+            out.write(')');
+            out.write('\n');
+            out.write(0);
+        }
+
+        SmileFixture beginObject() {
+            out.write(0xFA);
+            return this;
+        }
+
+        SmileFixture endObject() {
+            out.write(0xFB);
+            return this;
+        }
+
+        SmileFixture name(String name) {
+            // short ASCII name
+            byte[] bytes = name.getBytes(UTF_8);
+            out.write(0x80 + bytes.length - 1);
+            out.write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        SmileFixture value(String value) {
+            byte[] bytes = value.getBytes(UTF_8);
+            boolean ascii = bytes.length == value.length();
+            if (bytes.length == 0) {
+                out.write(0x20);
+            } else if (ascii && bytes.length <= 32) {
+                out.write(0x40 + bytes.length - 1);
+                out.write(bytes, 0, bytes.length);
+            } else if (!ascii && bytes.length <= 33) {
+                out.write(0x80 + bytes.length - 2);
+                out.write(bytes, 0, bytes.length);
+            } else {
+                out.write(ascii ? 0xE0 : 0xE4);
+                out.write(bytes, 0, bytes.length);
+                out.write(0xFC);
+            }
+            return this;
+        }
+
+        SmileFixture value(boolean value) {
+            out.write(value ? 0x23 : 0x22);
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
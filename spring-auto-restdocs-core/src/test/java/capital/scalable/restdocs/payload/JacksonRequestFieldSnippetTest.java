@@ -163,6 +163,41 @@ public class JacksonRequestFieldSnippetTest extends AbstractSnippetTests {
                 .build());
     }
 
+    @Test
+    public void nestedJsonSubTypesRequest() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY));
+
+        HandlerMethod handlerMethod = new HandlerMethod(new TestResource(), "addOrder",
+                Order.class);
+        JavadocReader javadocReader = mock(JavadocReader.class);
+        when(javadocReader.resolveFieldComment(Order.class, "item"))
+                .thenReturn("An item");
+        when(javadocReader.resolveFieldComment(SubItem1.class, "subItem1Field"))
+                .thenReturn("A sub item 1 field");
+        when(javadocReader.resolveFieldComment(SubItem2.class, "subItem2Field"))
+                .thenReturn("A sub item 2 field");
+
+        ConstraintReader constraintReader = mock(ConstraintReader.class);
+
+        this.snippet.expectRequestFields().withContents(
+                tableWithHeader("Path", "Type", "Optional", "Description")
+                        .row("item", "Object", "true", "An item")
+                        .row("item.type", "String", "true", "")
+                        .row("item.commonField", "String", "true", "")
+                        .row("item.subItem1Field", "Boolean", "true", "A sub item 1 field")
+                        .row("item.subItem2Field", "Integer", "true", "A sub item 2 field"));
+
+        new JacksonRequestFieldSnippet().document(operationBuilder
+                .attribute(HandlerMethod.class.getName(), handlerMethod)
+                .attribute(ObjectMapper.class.getName(), mapper)
+                .attribute(JavadocReader.class.getName(), javadocReader)
+                .attribute(ConstraintReader.class.getName(), constraintReader)
+                .request("http://localhost")
+                .content("{\"item\":{\"type\":\"1\"}}")
+                .build());
+    }
 
     private static class TestResource {
 
@@ -181,6 +216,10 @@ public class JacksonRequestFieldSnippetTest extends AbstractSnippetTests {
         public void addSubItem(@RequestBody ParentItem item) {
             // NOOP
         }
+
+        public void addOrder(@RequestBody Order order) {
+            // NOOP
+        }
     }
 
     private static class Item {
@@ -209,4 +248,8 @@ public class JacksonRequestFieldSnippetTest extends AbstractSnippetTests {
     private static class SubItem2 extends ParentItem {
         private Integer subItem2Field;
     }
+
+    private static class Order {
+        private ParentItem item;
+    }
 }
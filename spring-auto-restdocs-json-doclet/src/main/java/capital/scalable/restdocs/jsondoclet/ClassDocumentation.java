@@ -16,26 +16,60 @@
 
 package capital.scalable.restdocs.jsondoclet;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
 
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.FieldDoc;
 import com.sun.javadoc.MethodDoc;
 
 public final class ClassDocumentation {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private String comment = "";
-    private Map<String, String> fields = new HashMap<>();
-    private Map<String, MethodDocumentation> methods = new HashMap<>();
+    private Map<String, String> fields = new LinkedHashMap<>();
+    private Map<String, MethodDocumentation> methods = new LinkedHashMap<>();
+    private boolean flattened;
+    private Set<String> inherited = new LinkedHashSet<>();
 
     private ClassDocumentation() {
         // enforce usage of static factory method
     }
 
     public static ClassDocumentation fromClassDoc(ClassDoc classDoc) {
+        return fromClassDoc(classDoc, false);
+    }
+
+    /**
+     * Documentation of the given class. If {@code flatten} is set, fields and methods of
+     * superclasses and interfaces are included, where the class itself does not document
+     * them. The reader then finds the comments in the file of the class. Supertypes that
+     * are part of this Javadoc run are listed as inherited, so that the reader skips them.
+     * Others, e.g. from a library, may lack comments here and are still read by the reader.
+     */
+    public static ClassDocumentation fromClassDoc(ClassDoc classDoc, boolean flatten) {
         ClassDocumentation cd = new ClassDocumentation();
         cd.setComment(classDoc.commentText());
         for (FieldDoc fieldDoc : classDoc.fields(false)) {
@@ -44,57 +78,174 @@ public final class ClassDocumentation {
         for (MethodDoc methodDoc : classDoc.methods(false)) {
             cd.addMethod(methodDoc);
         }
+        if (flatten) {
+            cd.flattened = true;
+            for (ClassDoc supertype : supertypes(classDoc)) {
+                cd.inherit(supertype);
+                if (supertype.isIncluded()) {
+                    cd.inherited.add(supertype.qualifiedName());
+                }
+            }
+        }
+        return cd;
+    }
+
+    /**
+     * Superclasses followed by all interfaces, breadth first, like the reader
+     * walks them. {@link Object} is not included.
+     */
+    private static Set<ClassDoc> supertypes(ClassDoc classDoc) {
+        Set<ClassDoc> supertypes = new LinkedHashSet<>();
+        Deque<ClassDoc> interfaces = new ArrayDeque<>();
+        Collections.addAll(interfaces, classDoc.interfaces());
+        for (ClassDoc type = classDoc.superclass();
+                type != null && !Object.class.getName().equals(type.qualifiedName());
+                type = type.superclass()) {
+            supertypes.add(type);
+            Collections.addAll(interfaces, type.interfaces());
+        }
+        while (!interfaces.isEmpty()) {
+            ClassDoc type = interfaces.poll();
+            if (supertypes.add(type)) {
+                Collections.addAll(interfaces, type.interfaces());
+            }
+        }
+        return supertypes;
+    }
+
+    private void inherit(ClassDoc supertype) {
+        for (FieldDoc fieldDoc : supertype.fields(false)) {
+            String comment = fields.get(fieldDoc.name());
+            if (comment == null || comment.trim().isEmpty()) {
+                fields.put(fieldDoc.name(), fieldDoc.commentText());
+            }
+        }
+        for (MethodDoc methodDoc : supertype.methods(false)) {
+            MethodDocumentation inherited = MethodDocumentation.fromMethodDoc(methodDoc);
+            MethodDocumentation md = methods.get(methodDoc.name());
+            if (md == null) {
+                methods.put(methodDoc.name(), inherited);
+            } else {
+                md.inherit(inherited);
+            }
+        }
+    }
+
+    /**
+     * Documentation of a class being compiled, see {@link JavadocJsonAnnotationProcessor}.
+     */
+    public static ClassDocumentation fromTypeElement(TypeElement type, Elements elements) {
+        ClassDocumentation cd = new ClassDocumentation();
+        cd.setComment(DocComment.parse(elements.getDocComment(type)).getDescription());
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            cd.addField(field.getSimpleName().toString(),
+                    DocComment.parse(elements.getDocComment(field)).getDescription());
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            cd.methods.put(method.getSimpleName().toString(), MethodDocumentation
+                    .fromDocComment(DocComment.parse(elements.getDocComment(method))));
+        }
         return cd;
     }
 
+    /**
+     * Converts all comments to the given markup, see {@link CommentFormat}.
+     */
+    ClassDocumentation convert(CommentFormat format) {
+        if (format != CommentFormat.JAVADOC) {
+            comment = format.convert(comment);
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                field.setValue(format.convert(field.getValue()));
+            }
+            for (MethodDocumentation md : methods.values()) {
+                md.convert(format);
+            }
+        }
+        return this;
+    }
+
     private void setComment(String comment) {
-        this.comment = JsonUtils.escape(comment);
+        this.comment = comment;
     }
 
     private void addField(String name, String comment) {
-        this.fields.put(name, JsonUtils.escape(comment));
+        this.fields.put(name, comment);
     }
 
     private void addMethod(MethodDoc methodDoc) {
         this.methods.put(methodDoc.name(), MethodDocumentation.fromMethodDoc(methodDoc));
     }
 
-    public void writeToFile(File file) {
-        try (FileWriter fw = new FileWriter(file)) {
-            fw.append(toJson());
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Writes the documentation as UTF-8 JSON.
+     */
+    public void writeToFile(File file) throws IOException {
+        try (Writer writer = newWriter(file)) {
+            writeTo(writer);
         }
     }
 
-    private String toJson() {
-        StringBuilder builder = new StringBuilder();
-        builder.append("{\"comment\":\"");
-        builder.append(comment);
-        builder.append("\",\"fields\":{");
-        for (Map.Entry<String, String> e : fields.entrySet()) {
-            builder.append("\"");
-            builder.append(e.getKey());
-            builder.append("\":\"");
-            builder.append(e.getValue());
-            builder.append("\",");
+    /**
+     * Writes the documentation in the binary Smile format, see {@link SmileWriter}.
+     */
+    void writeSmileToFile(File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            writeTo(new SmileWriter(out));
         }
-        if (builder.charAt(builder.length() - 1) == ',') {
-            builder.deleteCharAt(builder.length() - 1);
+    }
+
+    void writeTo(Writer writer) throws IOException {
+        writeTo(new JsonWriter(writer));
+    }
+
+    void writeTo(DocumentationWriter json) throws IOException {
+        json.beginObject();
+        json.name("comment").value(comment);
+        json.name("fields").beginObject();
+        for (Map.Entry<String, String> e : fields.entrySet()) {
+            json.name(e.getKey()).value(e.getValue());
         }
-        builder.append("}");
-        builder.append(",\"methods\":{");
+        json.endObject();
+        json.name("methods").beginObject();
         for (Map.Entry<String, MethodDocumentation> e : methods.entrySet()) {
-            builder.append("\"");
-            builder.append(e.getKey());
-            builder.append("\": ");
-            builder.append(e.getValue().toJson());
-            builder.append(",");
+            json.name(e.getKey());
+            e.getValue().writeTo(json);
         }
-        if (builder.charAt(builder.length() - 1) == ',') {
-            builder.deleteCharAt(builder.length() - 1);
+        json.endObject();
+        if (flattened) {
+            json.name("flattened").value(true);
+            json.name("inherited").beginArray();
+            for (String supertype : inherited) {
+                json.value(supertype);
+            }
+            json.endArray();
         }
-        builder.append("}}");
-        return builder.toString();
+        json.endObject();
+    }
+
+    String toJson() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeTo(writer);
+        } catch (IOException e) {
+            // not thrown by StringWriter
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    byte[] toSmile() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTo(new SmileWriter(out));
+        } catch (IOException e) {
+            // not thrown by ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static Writer newWriter(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF_8));
     }
 }
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Target markup of the comments written to the JSON.
+ * <p>
+ * Comments are converted once when the JSON is written: inline tags like
+ * {@code {@code}} and {@code {@link}} and common HTML tags are turned into
+ * Asciidoctor or Markdown, other HTML tags are dropped and entities are decoded.
+ * Anything else in angle brackets, e.g. generics or comparisons, is text. Preformatted
+ * text is kept as it is, apart from its HTML tags and entities.
+ * {@link #JAVADOC} keeps the comments as they are.
+ */
+enum CommentFormat {
+    JAVADOC, ASCIIDOC, MARKDOWN;
+
+    /**
+     * HTML tags that are converted or dropped.
+     */
+    private static final Set<String> HTML_TAGS = new HashSet<>(Arrays.asList(
+            "a", "abbr", "b", "big", "blockquote", "br", "caption", "center", "cite", "code",
+            "dd", "del", "dfn", "div", "dl", "dt", "em", "font", "h1", "h2", "h3", "h4", "h5",
+            "h6", "hr", "i", "img", "ins", "kbd", "li", "ol", "p", "pre", "s", "samp", "small",
+            "span", "strike", "strong", "sub", "sup", "table", "tbody", "td", "tfoot", "th",
+            "thead", "tr", "tt", "u", "ul", "var"));
+    private static final String MARKDOWN_LIST_INDENT = "    ";
+
+    static CommentFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown comment format: " + name);
+        }
+    }
+
+    String convert(String comment) {
+        if (this == JAVADOC || comment == null || comment.isEmpty()) {
+            return comment;
+        }
+        return new Converter(this).convert(comment);
+    }
+
+    private static final class Converter {
+        private final boolean asciidoc;
+        private final StringBuilder out = new StringBuilder();
+        private boolean lineStart = true;
+        private boolean inPre;
+        private boolean preStart;
+        // whether each open list, innermost first, is ordered
+        private final Deque<Boolean> lists = new ArrayDeque<>();
+        private String href;
+
+        private Converter(CommentFormat format) {
+            this.asciidoc = format == ASCIIDOC;
+        }
+
+        String convert(String text) {
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (c == '{' && text.startsWith("{@", i)) {
+                    int end = closingBrace(text, i);
+                    if (end > 0) {
+                        inlineTag(text.substring(i + 2, end));
+                        i = end + 1;
+                        continue;
+                    }
+                } else if (c == '<') {
+                    int end = text.indexOf('>', i);
+                    String name = end > 0 ? tagName(text.substring(i + 1, end)) : null;
+                    if (name != null) {
+                        htmlTag(name, text.substring(i + 1, end));
+                        i = end + 1;
+                        continue;
+                    }
+                } else if (c == '&') {
+                    int end = text.indexOf(';', i);
+                    if (end > 0 && end - i <= 8) {
+                        String entity = entity(text.substring(i + 1, end));
+                        if (entity != null) {
+                            append(entity);
+                            i = end + 1;
+                            continue;
+                        }
+                    }
+                }
+                append(c);
+                i++;
+            }
+            return out.toString().trim();
+        }
+
+        private void inlineTag(String tag) {
+            String[] parts = tag.trim().split("\\s+", 2);
+            String content = parts.length > 1 ? parts[1] : "";
+            switch (parts[0]) {
+                case "code":
+                case "literal":
+                    code(content.trim());
+                    break;
+                case "link":
+                case "value":
+                    code(label(content));
+                    break;
+                case "linkplain":
+                    append(label(content));
+                    break;
+                case "docRoot":
+                case "inheritDoc":
+                    break;
+                default:
+                    append(content);
+            }
+        }
+
+        private void htmlTag(String name, String tag) {
+            boolean closing = tag.startsWith("/");
+            if (inPre && !"pre".equals(name)) {
+                // preformatted text has no markup
+                return;
+            }
+            switch (name) {
+                case "p":
+                case "h1":
+                case "h2":
+                case "h3":
+                case "h4":
+                case "h5":
+                case "h6":
+                case "div":
+                case "dl":
+                    paragraph();
+                    break;
+                case "br":
+                    append(asciidoc ? " +" : "  ");
+                    lineBreak();
+                    break;
+                case "code":
+                case "tt":
+                    append('`');
+                    break;
+                case "b":
+                case "strong":
+                    append(asciidoc ? "*" : "**");
+                    break;
+                case "i":
+                case "em":
+                    append('_');
+                    break;
+                case "ul":
+                case "ol":
+                    list(closing, "ol".equals(name));
+                    break;
+                case "li":
+                    if (!closing) {
+                        listItem(!lists.isEmpty() && lists.peek());
+                    }
+                    break;
+                case "dt":
+                case "dd":
+                    if (!closing) {
+                        listItem(false);
+                    }
+                    break;
+                case "pre":
+                    pre(closing);
+                    break;
+                case "a":
+                    anchor(closing, tag);
+                    break;
+                default:
+                    // other tags are dropped, their content is kept
+            }
+        }
+
+        /**
+         * Nested lists continue their parent list item, only the outermost list is a
+         * paragraph of its own.
+         */
+        private void list(boolean closing, boolean ordered) {
+            if (closing) {
+                if (lists.isEmpty()) {
+                    return;
+                }
+                lists.pop();
+            } else {
+                lists.push(ordered);
+            }
+            if (lists.isEmpty() || (!closing && lists.size() == 1)) {
+                paragraph();
+            } else {
+                lineBreak();
+            }
+        }
+
+        private void listItem(boolean ordered) {
+            lineBreak();
+            int depth = Math.max(lists.size(), 1);
+            if (asciidoc) {
+                StringBuilder marker = new StringBuilder(depth + 1);
+                for (int i = 0; i < depth; i++) {
+                    marker.append(ordered ? '.' : '*');
+                }
+                append(marker.append(' ').toString());
+            } else {
+                // indentation is written directly, as leading blanks are dropped
+                for (int i = 1; i < depth; i++) {
+                    out.append(MARKDOWN_LIST_INDENT);
+                }
+                append(ordered ? "1. " : "* ");
+            }
+        }
+
+        private void pre(boolean closing) {
+            String fence = asciidoc ? "----" : "```";
+            if (closing) {
+                lineBreak();
+                out.append(fence);
+                inPre = false;
+                paragraph();
+            } else {
+                paragraph();
+                out.append(fence).append('\n');
+                inPre = true;
+                preStart = true;
+            }
+        }
+
+        private void anchor(boolean closing, String tag) {
+            if (!closing) {
+                href = attribute(tag, "href");
+                if (href != null) {
+                    append(asciidoc ? href + "[" : "[");
+                }
+            } else if (href != null) {
+                append(asciidoc ? "]" : "](" + href + ")");
+                href = null;
+            }
+        }
+
+        private void code(String text) {
+            if (inPre) {
+                append(text);
+            } else if (asciidoc) {
+                append("`+" + text + "+`");
+            } else {
+                append("`" + text + "`");
+            }
+        }
+
+        private void append(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                append(text.charAt(i));
+            }
+        }
+
+        private void append(char c) {
+            if (inPre) {
+                // like in HTML, a line break right after <pre> is ignored
+                if (c != '\n' || !preStart) {
+                    out.append(c);
+                }
+                preStart = false;
+            } else if (c == '\n') {
+                lineBreak();
+            } else if (!lineStart || (c != ' ' && c != '\t')) {
+                out.append(c);
+                lineStart = false;
+            }
+        }
+
+        private void lineBreak() {
+            if (out.length() > 0 && out.charAt(out.length() - 1) != '\n') {
+                out.append('\n');
+            }
+            lineStart = true;
+        }
+
+        private void paragraph() {
+            lineBreak();
+            if (out.length() > 1 && out.charAt(out.length() - 2) != '\n') {
+                out.append('\n');
+            }
+        }
+    }
+
+    /**
+     * Text of a link: the label if given, otherwise the reference without package,
+     * e.g. {@code List#add(Object)} for {@code java.util.List#add(Object)}.
+     */
+    static String label(String link) {
+        String[] parts = link.trim().split("\\s+", 2);
+        if (parts.length > 1) {
+            return parts[1].trim();
+        }
+        String reference = parts[0];
+        int member = reference.indexOf('#');
+        String type = member >= 0 ? reference.substring(0, member) : reference;
+        String simpleName = type.substring(type.lastIndexOf('.') + 1);
+        if (member < 0) {
+            return simpleName;
+        }
+        String memberName = reference.substring(member + 1);
+        return simpleName.isEmpty() ? memberName : simpleName + "#" + memberName;
+    }
+
+    /**
+     * Lower case name of the given HTML tag without angle brackets, or null if it is
+     * not an HTML tag but text, e.g. {@code <T>} or {@code < b}.
+     */
+    static String tagName(String tag) {
+        int start = tag.startsWith("/") ? 1 : 0;
+        if (tag.length() <= start || !Character.isLetter(tag.charAt(start))) {
+            return null;
+        }
+        String name = tag.substring(start).split("[\\s/]", 2)[0].toLowerCase(Locale.ENGLISH);
+        return HTML_TAGS.contains(name) ? name : null;
+    }
+
+    private static int closingBrace(String text, int start) {
+        int depth = 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String attribute(String tag, String name) {
+        String lowerCase = tag.toLowerCase(Locale.ENGLISH);
+        int start = lowerCase.indexOf(name + "=");
+        if (start < 0) {
+            return null;
+        }
+        start += name.length() + 1;
+        if (start < tag.length() && (tag.charAt(start) == '"' || tag.charAt(start) == '\'')) {
+            int end = tag.indexOf(tag.charAt(start), start + 1);
+            return end > 0 ? tag.substring(start + 1, end) : null;
+        }
+        String[] value = tag.substring(start).split("\\s", 2);
+        return value[0];
+    }
+
+    private static String entity(String name) {
+        switch (name) {
+            case "lt":
+                return "<";
+            case "gt":
+                return ">";
+            case "amp":
+                return "&";
+            case "quot":
+                return "\"";
+            case "apos":
+                return "'";
+            case "nbsp":
+                return " ";
+            default:
+                try {
+                    if (name.startsWith("#x") || name.startsWith("#X")) {
+                        return String.valueOf((char) Integer.parseInt(name.substring(2), 16));
+                    } else if (name.startsWith("#")) {
+                        return String.valueOf((char) Integer.parseInt(name.substring(1)));
+                    }
+                } catch (NumberFormatException e) {
+                    // not an entity
+                }
+                return null;
+        }
+    }
+}
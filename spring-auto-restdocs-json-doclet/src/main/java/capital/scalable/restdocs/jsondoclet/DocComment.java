@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Raw doc comment as returned by {@link javax.lang.model.util.Elements#getDocComment},
+ * split into main description and {@code @param} tags like the doclet API does.
+ */
+final class DocComment {
+    private static final String PARAM_TAG = "@param";
+
+    private final String description;
+    private final Map<String, String> parameters;
+
+    private DocComment(String description, Map<String, String> parameters) {
+        this.description = description;
+        this.parameters = parameters;
+    }
+
+    static DocComment parse(String rawComment) {
+        StringBuilder description = new StringBuilder();
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (rawComment == null) {
+            return new DocComment("", parameters);
+        }
+
+        StringBuilder current = description;
+        String tag = null;
+        String parameterName = null;
+        for (String line : rawComment.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("@")) {
+                addParameter(parameters, tag, parameterName, current);
+                String[] parts = trimmed.split("\\s+", 3);
+                tag = parts[0];
+                parameterName = parts.length > 1 ? parts[1] : null;
+                current = new StringBuilder(parts.length > 2 ? parts[2] : "");
+            } else {
+                append(current, trimmed);
+            }
+        }
+        addParameter(parameters, tag, parameterName, current);
+        return new DocComment(description.toString().trim(), parameters);
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    private static void append(StringBuilder text, String line) {
+        if (text.length() > 0) {
+            text.append('\n');
+        }
+        text.append(line);
+    }
+
+    private static void addParameter(Map<String, String> parameters, String tag,
+            String parameterName, StringBuilder text) {
+        if (PARAM_TAG.equals(tag) && parameterName != null) {
+            parameters.put(parameterName, text.toString().trim());
+        }
+    }
+}
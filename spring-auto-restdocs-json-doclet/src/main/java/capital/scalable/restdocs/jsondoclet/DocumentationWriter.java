@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.io.IOException;
+
+/**
+ * Streaming writer of the documentation of a class, see {@link JsonWriter}
+ * and {@link SmileWriter}.
+ */
+interface DocumentationWriter {
+
+    DocumentationWriter beginObject() throws IOException;
+
+    DocumentationWriter endObject() throws IOException;
+
+    /**
+     * Starts an array of values, which must not contain objects or arrays.
+     */
+    DocumentationWriter beginArray() throws IOException;
+
+    DocumentationWriter endArray() throws IOException;
+
+    /**
+     * Writes the name of the next member. Must be followed by a value or an object.
+     */
+    DocumentationWriter name(String name) throws IOException;
+
+    DocumentationWriter value(String value) throws IOException;
+
+    DocumentationWriter value(boolean value) throws IOException;
+}
@@ -22,9 +22,20 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.FieldDoc;
@@ -37,21 +48,156 @@ import com.sun.tools.doclets.standard.Standard;
  * Javadoc to JSON doclet.
  */
 public class ExtractDocumentationAsJsonDoclet extends Standard {
+    /**
+     * Writes all classes into one packed index file instead of one JSON file per class.
+     */
+    static final String INDEX_OPTION = "-singlefileindex";
+    /**
+     * Only writes files whose content changed since the last run, see {@link JavadocManifest}.
+     */
+    static final String INCREMENTAL_OPTION = "-incremental";
+    /**
+     * Only writes controllers and the types reachable from them, see {@link ReachableTypes}.
+     */
+    static final String REACHABLE_OPTION = "-reachableonly";
+    /**
+     * Number of threads writing files, defaults to the number of processors.
+     */
+    static final String THREADS_OPTION = "-threads";
+    /**
+     * Includes inherited fields and methods in the JSON of each class.
+     */
+    static final String FLATTEN_OPTION = "-flatten";
+    /**
+     * Markup the comments are converted to: {@code javadoc} (default), {@code asciidoc}
+     * or {@code markdown}.
+     */
+    static final String MARKUP_OPTION = "-markup";
+    /**
+     * Writes the binary Smile format instead of text JSON.
+     */
+    static final String SMILE_OPTION = "-smile";
 
     public static boolean start(RootDoc root) {
         String destinationDir = destinationDir(root.options());
-        for (ClassDoc classDoc : root.classes()) {
-            ClassDocumentation cd = ClassDocumentation.fromClassDoc(classDoc);
-            try {
-                writeToFile(destinationDir, cd, classDoc);
-            } catch (IOException e) {
-                e.printStackTrace();
-                throw new DocletAbortException("Error writing file: " + e);
+        List<ClassDoc> classes = Arrays.asList(root.classes());
+        if (hasOption(root.options(), REACHABLE_OPTION)) {
+            classes = ReachableTypes.filter(root.classes());
+        }
+        boolean flatten = hasOption(root.options(), FLATTEN_OPTION);
+        CommentFormat format = commentFormat(root.options());
+        OutputFormat output = hasOption(root.options(), SMILE_OPTION)
+                ? OutputFormat.SMILE : OutputFormat.JSON;
+        JavadocManifest manifest = null;
+        if (hasOption(root.options(), INCREMENTAL_OPTION)) {
+            manifest = JavadocManifest.read(basePath(destinationDir).toFile());
+        }
+        if (hasOption(root.options(), INDEX_OPTION)) {
+            return writeIndex(destinationDir, classes, manifest, flatten, format, output);
+        }
+        try {
+            writeFiles(destinationDir, classes, manifest, flatten, format, output,
+                    threads(root.options()));
+            if (manifest != null) {
+                deleteOrphans(destinationDir, manifest.retainOnly(classNames(classes)));
+                manifest.write();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error writing file: " + e);
+        }
+        return true;
+    }
+
+    public static int optionLength(String option) {
+        if (INDEX_OPTION.equals(option) || INCREMENTAL_OPTION.equals(option)
+                || REACHABLE_OPTION.equals(option) || FLATTEN_OPTION.equals(option)
+                || SMILE_OPTION.equals(option)) {
+            return 1;
+        }
+        if (THREADS_OPTION.equals(option) || MARKUP_OPTION.equals(option)) {
+            return 2;
+        }
+        return Standard.optionLength(option);
+    }
+
+    private static boolean writeIndex(String destinationDir, List<ClassDoc> classes,
+            JavadocManifest manifest, boolean flatten, CommentFormat format,
+            OutputFormat output) {
+        JavadocIndexWriter indexWriter = new JavadocIndexWriter();
+        List<String> classNames = new ArrayList<>();
+        for (ClassDoc classDoc : classes) {
+            ClassDocumentation cd =
+                    ClassDocumentation.fromClassDoc(classDoc, flatten).convert(format);
+            byte[] payload = output.encode(cd);
+            indexWriter.add(classDoc.qualifiedName(), payload);
+            if (manifest != null) {
+                manifest.update(classDoc.qualifiedName(), payload);
+                classNames.add(classDoc.qualifiedName());
+            }
+        }
+        try {
+            Path path = basePath(destinationDir);
+            File indexFile = path.resolve(JavadocIndexWriter.INDEX_FILE_NAME).toFile();
+            if (manifest != null) {
+                manifest.retainOnly(classNames);
+                if (!manifest.isChanged() && indexFile.isFile()) {
+                    return true;
+                }
             }
+            Files.createDirectories(path.toAbsolutePath());
+            indexWriter.writeToFile(indexFile);
+            if (manifest != null) {
+                manifest.write();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error writing file: " + e);
         }
         return true;
     }
 
+    private static List<String> classNames(List<ClassDoc> classes) {
+        List<String> classNames = new ArrayList<>(classes.size());
+        for (ClassDoc classDoc : classes) {
+            classNames.add(classDoc.qualifiedName());
+        }
+        return classNames;
+    }
+
+    /**
+     * Deletes the files written for classes of an earlier run that are no longer documented.
+     * The manifest only knows qualified names, so every split into package and
+     * (nested) class name is tried; each of them maps back to the same qualified name.
+     */
+    private static void deleteOrphans(String destinationDir, Collection<String> classNames)
+            throws IOException {
+        Path base = basePath(destinationDir);
+        for (String className : classNames) {
+            int separator = -1;
+            do {
+                String packageDir = className.substring(0, Math.max(separator, 0))
+                        .replace(".", File.separator);
+                String name = className.substring(separator + 1);
+                Files.deleteIfExists(base.resolve(packageDir).resolve(name + ".json"));
+                separator = className.indexOf('.', separator + 1);
+            } while (separator > 0);
+        }
+    }
+
+    private static Path basePath(String destinationDir) {
+        return destinationDir != null ? Paths.get(destinationDir) : Paths.get("");
+    }
+
+    private static boolean hasOption(String[][] options, String option) {
+        for (String[] os : options) {
+            if (os[0].equalsIgnoreCase(option)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static String destinationDir(String[][] options) {
         for (String[] os : options) {
             String opt = os[0].toLowerCase();
@@ -62,12 +208,105 @@ public class ExtractDocumentationAsJsonDoclet extends Standard {
         return null;
     }
 
-    private static void writeToFile(String destinationDir, ClassDocumentation cd, ClassDoc classDoc)
-            throws IOException {
-        final Path path = path(destinationDir, classDoc);
-        Files.createDirectories(path);
-        String fileName = classDoc.name() + ".json";
-        cd.writeToFile(path.resolve(fileName).toFile());
+    private static int threads(String[][] options) {
+        for (String[] os : options) {
+            if (os[0].equalsIgnoreCase(THREADS_OPTION)) {
+                try {
+                    return Math.max(1, Integer.parseInt(os[1]));
+                } catch (NumberFormatException e) {
+                    throw new DocletAbortException("Invalid number of threads: " + os[1]);
+                }
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static CommentFormat commentFormat(String[][] options) {
+        for (String[] os : options) {
+            if (os[0].equalsIgnoreCase(MARKUP_OPTION)) {
+                try {
+                    return CommentFormat.of(os[1]);
+                } catch (IllegalArgumentException e) {
+                    throw new DocletAbortException(e.getMessage());
+                }
+            }
+        }
+        return CommentFormat.JAVADOC;
+    }
+
+    /**
+     * Extracts the documentation on the calling thread, as the doclet API is not
+     * thread-safe, and serializes and writes the files on a pool of worker threads.
+     */
+    private static void writeFiles(String destinationDir, List<ClassDoc> classes,
+            final JavadocManifest manifest, boolean flatten, CommentFormat format,
+            final OutputFormat output, int threads) throws IOException {
+        Set<Path> directories = new HashSet<>();
+        List<Callable<Void>> writes = new ArrayList<>(classes.size());
+        for (ClassDoc classDoc : classes) {
+            final ClassDocumentation cd =
+                    ClassDocumentation.fromClassDoc(classDoc, flatten).convert(format);
+            final String className = classDoc.qualifiedName();
+            Path path = path(destinationDir, classDoc);
+            if (directories.add(path)) {
+                Files.createDirectories(path);
+            }
+            final File file = path.resolve(classDoc.name() + ".json").toFile();
+            writes.add(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    writeToFile(cd, className, file, manifest, output);
+                    return null;
+                }
+            });
+        }
+
+        if (threads == 1 || writes.size() < 2) {
+            for (Callable<Void> write : writes) {
+                call(write);
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, writes.size()));
+        try {
+            for (Future<Void> result : executor.invokeAll(writes)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void call(Callable<Void> write) throws IOException {
+        try {
+            write.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void writeToFile(ClassDocumentation cd, String className, File file,
+            JavadocManifest manifest, OutputFormat output) throws IOException {
+        if (manifest == null) {
+            output.write(cd, file);
+            return;
+        }
+        byte[] content = output.encode(cd);
+        if (!manifest.update(className, content) && file.isFile()) {
+            // unchanged, keep file and timestamp
+            return;
+        }
+        Files.write(file.toPath(), content);
     }
 
     private static Path path(String destinationDir, ClassDoc classDoc) {
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the documentation of all classes into one packed index file.
+ * <p>
+ * Layout: magic, version, entry count, entry table (class name, payload offset,
+ * payload length) followed by the UTF-8 JSON or Smile payloads of all classes.
+ */
+public class JavadocIndexWriter {
+    public static final String INDEX_FILE_NAME = "javadoc-index.bin";
+    static final int MAGIC = 0x53415244; // SARD
+    static final int VERSION = 1;
+
+    private final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+    public void add(String qualifiedClassName, ClassDocumentation classDocumentation) {
+        add(qualifiedClassName, OutputFormat.JSON.encode(classDocumentation));
+    }
+
+    /**
+     * Adds the already encoded documentation of a class.
+     */
+    void add(String qualifiedClassName, byte[] payload) {
+        classes.put(qualifiedClassName, payload);
+    }
+
+    public void writeToFile(File file) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(classes.values());
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(classes.size());
+            int offset = 0;
+            int i = 0;
+            for (String className : classes.keySet()) {
+                int length = payloads.get(i++).length;
+                out.writeUTF(className);
+                out.writeInt(offset);
+                out.writeInt(length);
+                offset += length;
+            }
+            for (byte[] payload : payloads) {
+                out.write(payload);
+            }
+        }
+    }
+}
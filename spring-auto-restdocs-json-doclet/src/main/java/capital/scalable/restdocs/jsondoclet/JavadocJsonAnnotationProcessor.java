@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+
+/**
+ * Annotation processor writing the same Javadoc JSON as
+ * {@link ExtractDocumentationAsJsonDoclet} during normal compilation,
+ * which makes the separate Javadoc run unnecessary.
+ * <p>
+ * The processor handles all compiled classes, but claims no annotations.
+ * By default, the JSON files are written to {@code generated-javadoc-json} in the
+ * class output directory, to be read with {@code classpath:generated-javadoc-json}.
+ * The processor option {@code javadocJsonDir} writes them to the given directory instead.
+ * The option {@code javadocJsonMarkup} converts the comments like the {@code -markup}
+ * option of the doclet.
+ */
+public class JavadocJsonAnnotationProcessor extends AbstractProcessor {
+    static final String JAVADOC_JSON_DIR_OPTION = "javadocJsonDir";
+    static final String JAVADOC_JSON_MARKUP_OPTION = "javadocJsonMarkup";
+    static final String DEFAULT_CLASS_OUTPUT_DIR = "generated-javadoc-json";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return new HashSet<>(Arrays.asList(JAVADOC_JSON_DIR_OPTION, JAVADOC_JSON_MARKUP_OPTION));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        CommentFormat format = CommentFormat.JAVADOC;
+        String markup = processingEnv.getOptions().get(JAVADOC_JSON_MARKUP_OPTION);
+        if (markup != null) {
+            try {
+                format = CommentFormat.of(markup);
+            } catch (IllegalArgumentException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage());
+                return false;
+            }
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            processType(type, format);
+        }
+        return false;
+    }
+
+    private void processType(TypeElement type, CommentFormat format) {
+        ClassDocumentation cd = ClassDocumentation
+                .fromTypeElement(type, processingEnv.getElementUtils()).convert(format);
+        try {
+            writeToFile(type, cd);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Error writing Javadoc JSON: " + e, type);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            processType(nested, format);
+        }
+    }
+
+    private void writeToFile(TypeElement type, ClassDocumentation cd) throws IOException {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String qualifiedName = type.getQualifiedName().toString();
+        String simpleName = packageName.isEmpty()
+                ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        String relativePath = packageName.replace('.', '/')
+                + (packageName.isEmpty() ? "" : "/") + simpleName + ".json";
+
+        String javadocJsonDir = processingEnv.getOptions().get(JAVADOC_JSON_DIR_OPTION);
+        if (javadocJsonDir != null) {
+            File file = new File(javadocJsonDir, relativePath);
+            Files.createDirectories(file.getParentFile().toPath());
+            cd.writeToFile(file);
+        } else {
+            FileObject resource = processingEnv.getFiler().createResource(CLASS_OUTPUT, "",
+                    DEFAULT_CLASS_OUTPUT_DIR + "/" + relativePath, type);
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(resource.openOutputStream(), UTF_8))) {
+                cd.writeTo(writer);
+            }
+        }
+    }
+}
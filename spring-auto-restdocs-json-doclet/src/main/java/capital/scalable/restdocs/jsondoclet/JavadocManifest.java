@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Content hashes of the JSON written for each class by an earlier doclet run.
+ * <p>
+ * Used in incremental mode to skip files whose content did not change, which keeps
+ * their timestamps stable for downstream build caches.
+ * The manifest is a text file with one {@code <class name> <SHA-1>} line per class.
+ */
+class JavadocManifest {
+    static final String MANIFEST_FILE_NAME = "javadoc-manifest.txt";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File file;
+    private final Map<String, String> hashes = new TreeMap<>();
+    private boolean changed;
+
+    private JavadocManifest(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the manifest in the given directory. A missing or unreadable
+     * manifest results in an empty one, i.e. all files are written.
+     */
+    static JavadocManifest read(File directory) {
+        JavadocManifest manifest = new JavadocManifest(new File(directory, MANIFEST_FILE_NAME));
+        if (!manifest.file.isFile()) {
+            return manifest;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(manifest.file), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    manifest.hashes.put(line.substring(0, separator),
+                            line.substring(separator + 1));
+                }
+            }
+        } catch (IOException e) {
+            manifest.hashes.clear();
+        }
+        return manifest;
+    }
+
+    /**
+     * Records the content hash of a class and tells whether it changed
+     * since the last run. Safe to call from multiple threads.
+     */
+    boolean update(String className, byte[] content) {
+        String hash = hash(content);
+        synchronized (this) {
+            if (hash.equals(hashes.get(className))) {
+                return false;
+            }
+            hashes.put(className, hash);
+            changed = true;
+            return true;
+        }
+    }
+
+    /**
+     * Forgets all classes except the given ones.
+     *
+     * @return names of the classes that were forgotten
+     */
+    Collection<String> retainOnly(Collection<String> classNames) {
+        Set<String> retained = new HashSet<>(classNames);
+        List<String> removed = new ArrayList<>();
+        for (String className : hashes.keySet()) {
+            if (!retained.contains(className)) {
+                removed.add(className);
+            }
+        }
+        if (!removed.isEmpty()) {
+            hashes.keySet().removeAll(removed);
+            changed = true;
+        }
+        return removed;
+    }
+
+    boolean isChanged() {
+        return changed;
+    }
+
+    void write() throws IOException {
+        if (!changed) {
+            return;
+        }
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), UTF_8)) {
+            for (Map.Entry<String, String> entry : hashes.entrySet()) {
+                writer.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+            }
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        changed = false;
+    }
+
+    static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[2 * i] = HEX[(digest[i] >> 4) & 0xf];
+                hex[2 * i + 1] = HEX[digest[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not supported", e);
+        }
+    }
+}
@@ -16,13 +16,25 @@
 
 package capital.scalable.restdocs.jsondoclet;
 
+import java.io.IOException;
+
 public final class JsonUtils {
 
     private JsonUtils() {
         // only static utility functions
     }
 
+    /**
+     * Escapes the given text for use in a JSON string, see {@link JsonWriter}.
+     */
     public static String escape(String text) {
-        return text.replace("\"", "\\\"").replace("\n", "\\n");
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        try {
+            JsonWriter.appendEscaped(escaped, text);
+        } catch (IOException e) {
+            // not thrown by StringBuilder
+            throw new IllegalStateException(e);
+        }
+        return escaped.toString();
     }
 }
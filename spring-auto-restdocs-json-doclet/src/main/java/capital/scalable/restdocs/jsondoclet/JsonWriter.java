@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal streaming JSON writer for objects with string values and arrays of strings.
+ * <p>
+ * Strings are escaped as required by RFC 8259: quotation mark, reverse solidus and
+ * all control characters. The line and paragraph separators U+2028 and U+2029 are
+ * escaped as well, so the output is also valid JavaScript.
+ */
+final class JsonWriter implements DocumentationWriter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private boolean first = true;
+    private boolean inArray;
+
+    JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        out.write('{');
+        first = true;
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        out.write('}');
+        first = false;
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        out.write('[');
+        first = true;
+        inArray = true;
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        out.write(']');
+        first = false;
+        inArray = false;
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (!first) {
+            out.write(',');
+        }
+        writeString(out, name);
+        out.write(':');
+        first = true;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        separateArrayValue();
+        writeString(out, value != null ? value : "");
+        first = false;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        separateArrayValue();
+        out.write(value ? "true" : "false");
+        first = false;
+        return this;
+    }
+
+    private void separateArrayValue() throws IOException {
+        if (inArray && !first) {
+            out.write(',');
+        }
+    }
+
+    static void writeString(Appendable out, String value) throws IOException {
+        out.append('"');
+        appendEscaped(out, value);
+        out.append('"');
+    }
+
+    /**
+     * Appends the given text with all characters escaped that must not appear
+     * unescaped in a JSON string.
+     */
+    static void appendEscaped(Appendable out, String value) throws IOException {
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement = replacement(c);
+            if (replacement == null) {
+                continue;
+            }
+            if (start < i) {
+                out.append(value, start, i);
+            }
+            out.append(replacement);
+            start = i + 1;
+        }
+        if (start < length) {
+            out.append(value, start, length);
+        }
+    }
+
+    private static String replacement(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            case '\u2028':
+            case '\u2029':
+                return unicodeEscape(c);
+            default:
+                return c < 0x20 ? unicodeEscape(c) : null;
+        }
+    }
+
+    private static String unicodeEscape(char c) {
+        return new String(new char[]{'\\', 'u',
+                HEX[(c >> 12) & 0xf], HEX[(c >> 8) & 0xf], HEX[(c >> 4) & 0xf], HEX[c & 0xf]});
+    }
+}
@@ -16,7 +16,9 @@
 
 package capital.scalable.restdocs.jsondoclet;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import com.sun.javadoc.MethodDoc;
@@ -24,7 +26,7 @@ import com.sun.javadoc.ParamTag;
 
 public class MethodDocumentation {
     private String comment;
-    private Map<String, String> parameters = new HashMap<>();
+    private Map<String, String> parameters = new LinkedHashMap<>();
 
     private MethodDocumentation() {
         // enforce usage of static factory method
@@ -32,30 +34,68 @@ public class MethodDocumentation {
 
     public static MethodDocumentation fromMethodDoc(MethodDoc methodDoc) {
         MethodDocumentation md = new MethodDocumentation();
-        md.comment = JsonUtils.escape(methodDoc.commentText());
+        md.comment = methodDoc.commentText();
 
         for (ParamTag param : methodDoc.paramTags()) {
-            md.parameters.put(param.parameterName(), JsonUtils.escape(param.parameterComment()));
+            md.parameters.put(param.parameterName(), param.parameterComment());
         }
         return md;
     }
 
+    static MethodDocumentation fromDocComment(DocComment docComment) {
+        MethodDocumentation md = new MethodDocumentation();
+        md.comment = docComment.getDescription();
+        for (Map.Entry<String, String> param : docComment.getParameters().entrySet()) {
+            md.parameters.put(param.getKey(), param.getValue());
+        }
+        return md;
+    }
+
+    /**
+     * Takes over the comments of an overridden or implemented method
+     * where this method has none.
+     */
+    void inherit(MethodDocumentation other) {
+        if (isBlank(comment)) {
+            comment = other.comment;
+        }
+        for (Map.Entry<String, String> param : other.parameters.entrySet()) {
+            if (isBlank(parameters.get(param.getKey()))) {
+                parameters.put(param.getKey(), param.getValue());
+            }
+        }
+    }
+
+    void convert(CommentFormat format) {
+        comment = format.convert(comment);
+        for (Map.Entry<String, String> param : parameters.entrySet()) {
+            param.setValue(format.convert(param.getValue()));
+        }
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.trim().isEmpty();
+    }
+
     public String toJson() {
-        StringBuilder builder = new StringBuilder();
-        builder.append("{ \"comment\":\"");
-        builder.append(comment);
-        builder.append("\", \"parameters\":{");
-        for (Map.Entry<String, String> e : parameters.entrySet()) {
-            builder.append("\"");
-            builder.append(e.getKey());
-            builder.append("\":\"");
-            builder.append(e.getValue());
-            builder.append("\",");
+        StringWriter writer = new StringWriter();
+        try {
+            writeTo(new JsonWriter(writer));
+        } catch (IOException e) {
+            // not thrown by StringWriter
+            throw new IllegalStateException(e);
         }
-        if (builder.charAt(builder.length() - 1) == ',') {
-            builder.deleteCharAt(builder.length() - 1);
+        return writer.toString();
+    }
+
+    void writeTo(DocumentationWriter json) throws IOException {
+        json.beginObject();
+        json.name("comment").value(comment);
+        json.name("parameters").beginObject();
+        for (Map.Entry<String, String> e : parameters.entrySet()) {
+            json.name(e.getKey()).value(e.getValue());
         }
-        builder.append("}}");
-        return builder.toString();
+        json.endObject();
+        json.endObject();
     }
 }
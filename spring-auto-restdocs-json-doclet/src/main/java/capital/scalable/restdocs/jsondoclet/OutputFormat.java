@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Encoding of the documentation files. The file names do not depend on the encoding,
+ * the reader detects Smile by its header.
+ */
+enum OutputFormat {
+    JSON {
+        @Override
+        byte[] encode(ClassDocumentation cd) {
+            return cd.toJson().getBytes(UTF_8);
+        }
+
+        @Override
+        void write(ClassDocumentation cd, File file) throws IOException {
+            cd.writeToFile(file);
+        }
+    },
+    SMILE {
+        @Override
+        byte[] encode(ClassDocumentation cd) {
+            return cd.toSmile();
+        }
+
+        @Override
+        void write(ClassDocumentation cd, File file) throws IOException {
+            cd.writeSmileToFile(file);
+        }
+    };
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    abstract byte[] encode(ClassDocumentation cd);
+
+    /**
+     * Streams the documentation to the file.
+     */
+    abstract void write(ClassDocumentation cd, File file) throws IOException;
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.javadoc.AnnotationDesc;
+import com.sun.javadoc.AnnotationValue;
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.FieldDoc;
+import com.sun.javadoc.MethodDoc;
+import com.sun.javadoc.Parameter;
+import com.sun.javadoc.ParameterizedType;
+import com.sun.javadoc.ProgramElementDoc;
+import com.sun.javadoc.Type;
+import com.sun.javadoc.TypeVariable;
+import com.sun.javadoc.WildcardType;
+
+/**
+ * Filters documented classes down to controllers and the types reachable from them.
+ * <p>
+ * Starting at classes annotated with {@code @RestController} or {@code @Controller},
+ * the parameter and return types of methods are followed, and from there field and
+ * getter types, supertypes, type arguments and classes referenced in annotations,
+ * e.g. {@code @JsonSubTypes}.
+ */
+final class ReachableTypes {
+    private static final Set<String> CONTROLLER_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "org.springframework.web.bind.annotation.RestController",
+            "org.springframework.stereotype.Controller"));
+
+    private final Set<ClassDoc> documented;
+    private final Set<ClassDoc> reachable = new LinkedHashSet<>();
+    private final Deque<ClassDoc> queue = new ArrayDeque<>();
+
+    private ReachableTypes(ClassDoc[] classes) {
+        this.documented = new HashSet<>(Arrays.asList(classes));
+    }
+
+    /**
+     * Documented classes that are controllers or reachable from controllers,
+     * in the order of the given classes.
+     */
+    static List<ClassDoc> filter(ClassDoc[] classes) {
+        ReachableTypes reachableTypes = new ReachableTypes(classes);
+        for (ClassDoc classDoc : classes) {
+            if (isController(classDoc)) {
+                reachableTypes.addController(classDoc);
+            }
+        }
+        reachableTypes.walk();
+
+        List<ClassDoc> result = new ArrayList<>();
+        for (ClassDoc classDoc : classes) {
+            if (reachableTypes.reachable.contains(classDoc)) {
+                result.add(classDoc);
+            }
+        }
+        return result;
+    }
+
+    private void addController(ClassDoc controller) {
+        for (ClassDoc type = controller; type != null && documented.contains(type);
+                type = type.superclass()) {
+            // base controllers hold inherited endpoint methods and their Javadoc
+            reachable.add(type);
+            for (MethodDoc method : type.methods(false)) {
+                addType(method.returnType());
+                for (Parameter parameter : method.parameters()) {
+                    addType(parameter.type());
+                }
+            }
+        }
+    }
+
+    private void walk() {
+        while (!queue.isEmpty()) {
+            ClassDoc classDoc = queue.poll();
+            addType(classDoc.superclassType());
+            for (Type interfaceType : classDoc.interfaceTypes()) {
+                addType(interfaceType);
+            }
+            addAnnotationTypes(classDoc);
+            for (FieldDoc field : classDoc.fields(false)) {
+                if (!field.isStatic()) {
+                    addType(field.type());
+                    addAnnotationTypes(field);
+                }
+            }
+            for (MethodDoc method : classDoc.methods(false)) {
+                if (isGetter(method)) {
+                    addType(method.returnType());
+                    addAnnotationTypes(method);
+                }
+            }
+        }
+    }
+
+    private void addType(Type type) {
+        if (type == null || type.isPrimitive()) {
+            return;
+        }
+        ParameterizedType parameterizedType = type.asParameterizedType();
+        if (parameterizedType != null) {
+            for (Type typeArgument : parameterizedType.typeArguments()) {
+                addType(typeArgument);
+            }
+        }
+        WildcardType wildcardType = type.asWildcardType();
+        if (wildcardType != null) {
+            for (Type bound : wildcardType.extendsBounds()) {
+                addType(bound);
+            }
+            return;
+        }
+        TypeVariable typeVariable = type.asTypeVariable();
+        if (typeVariable != null) {
+            // bounds of type variables are not walked to avoid cycles like E extends Enum<E>
+            return;
+        }
+        addClass(type.asClassDoc());
+    }
+
+    private void addClass(ClassDoc classDoc) {
+        if (classDoc != null && documented.contains(classDoc) && reachable.add(classDoc)) {
+            queue.add(classDoc);
+        }
+    }
+
+    private void addAnnotationTypes(ProgramElementDoc element) {
+        for (AnnotationDesc annotation : element.annotations()) {
+            for (AnnotationDesc.ElementValuePair pair : annotation.elementValues()) {
+                addAnnotationValue(pair.value());
+            }
+        }
+    }
+
+    private void addAnnotationValue(AnnotationValue annotationValue) {
+        Object value = annotationValue.value();
+        if (value instanceof Type) {
+            addType((Type) value);
+        } else if (value instanceof AnnotationValue[]) {
+            for (AnnotationValue nested : (AnnotationValue[]) value) {
+                addAnnotationValue(nested);
+            }
+        } else if (value instanceof AnnotationDesc) {
+            for (AnnotationDesc.ElementValuePair pair
+                    : ((AnnotationDesc) value).elementValues()) {
+                addAnnotationValue(pair.value());
+            }
+        }
+    }
+
+    private static boolean isGetter(MethodDoc method) {
+        String name = method.name();
+        return !method.isStatic() && method.parameters().length == 0
+                && (name.startsWith("get") || name.startsWith("is"));
+    }
+
+    private static boolean isController(ClassDoc classDoc) {
+        for (AnnotationDesc annotation : classDoc.annotations()) {
+            try {
+                if (CONTROLLER_ANNOTATIONS.contains(annotation.annotationType().qualifiedName())) {
+                    return true;
+                }
+            } catch (ClassCastException e) {
+                // annotation type not on the Javadoc classpath
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Minimal streaming writer of the binary Smile format, which Jackson parses
+ * considerably faster than text JSON.
+ * <p>
+ * Only objects, arrays, strings and booleans are written. Names and values are not shared
+ * by back references, so the output is deterministic and every class can be
+ * decoded on its own.
+ *
+ * @see <a href="https://github.com/FasterXML/smile-format-specification">Smile format</a>
+ */
+final class SmileWriter implements DocumentationWriter {
+    /**
+     * {@code :)\n} followed by version 0 without shared names, shared values or raw binary.
+     */
+    static final byte[] HEADER = {':', ')', '\n', 0};
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int TOKEN_EMPTY_STRING = 0x20;
+    private static final int TOKEN_FALSE = 0x22;
+    private static final int TOKEN_TRUE = 0x23;
+    private static final int TOKEN_TINY_ASCII = 0x40;
+    private static final int TOKEN_SHORT_ASCII = 0x60;
+    private static final int TOKEN_TINY_UNICODE = 0x80;
+    private static final int TOKEN_SHORT_UNICODE = 0xA0;
+    private static final int TOKEN_LONG_ASCII = 0xE0;
+    private static final int TOKEN_LONG_UNICODE = 0xE4;
+    private static final int TOKEN_START_ARRAY = 0xF8;
+    private static final int TOKEN_END_ARRAY = 0xF9;
+    private static final int TOKEN_START_OBJECT = 0xFA;
+    private static final int TOKEN_END_OBJECT = 0xFB;
+    private static final int TOKEN_END_STRING = 0xFC;
+
+    private static final int KEY_EMPTY_STRING = 0x20;
+    private static final int KEY_LONG_NAME = 0x34;
+    private static final int KEY_SHORT_ASCII = 0x80;
+    private static final int KEY_SHORT_UNICODE = 0xC0;
+
+    private final OutputStream out;
+
+    SmileWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(HEADER);
+    }
+
+    @Override
+    public SmileWriter beginObject() throws IOException {
+        out.write(TOKEN_START_OBJECT);
+        return this;
+    }
+
+    @Override
+    public SmileWriter endObject() throws IOException {
+        out.write(TOKEN_END_OBJECT);
+        return this;
+    }
+
+    @Override
+    public SmileWriter beginArray() throws IOException {
+        out.write(TOKEN_START_ARRAY);
+        return this;
+    }
+
+    @Override
+    public SmileWriter endArray() throws IOException {
+        out.write(TOKEN_END_ARRAY);
+        return this;
+    }
+
+    @Override
+    public SmileWriter name(String name) throws IOException {
+        byte[] bytes = name.getBytes(UTF_8);
+        int length = bytes.length;
+        if (length == 0) {
+            out.write(KEY_EMPTY_STRING);
+        } else if (length <= 64 && isAscii(bytes)) {
+            out.write(KEY_SHORT_ASCII + length - 1);
+            out.write(bytes);
+        } else if (length >= 2 && length <= 57 && !isAscii(bytes)) {
+            out.write(KEY_SHORT_UNICODE + length - 2);
+            out.write(bytes);
+        } else {
+            out.write(KEY_LONG_NAME);
+            out.write(bytes);
+            out.write(TOKEN_END_STRING);
+        }
+        return this;
+    }
+
+    @Override
+    public SmileWriter value(String value) throws IOException {
+        byte[] bytes = value != null ? value.getBytes(UTF_8) : new byte[0];
+        int length = bytes.length;
+        boolean ascii = isAscii(bytes);
+        if (length == 0) {
+            out.write(TOKEN_EMPTY_STRING);
+        } else if (ascii && length <= 32) {
+            out.write(TOKEN_TINY_ASCII + length - 1);
+            out.write(bytes);
+        } else if (ascii && length <= 64) {
+            out.write(TOKEN_SHORT_ASCII + length - 33);
+            out.write(bytes);
+        } else if (!ascii && length <= 33) {
+            out.write(TOKEN_TINY_UNICODE + length - 2);
+            out.write(bytes);
+        } else if (!ascii && length <= 65) {
+            out.write(TOKEN_SHORT_UNICODE + length - 34);
+            out.write(bytes);
+        } else {
+            // UTF-8 never contains the end marker 0xFC
+            out.write(ascii ? TOKEN_LONG_ASCII : TOKEN_LONG_UNICODE);
+            out.write(bytes);
+            out.write(TOKEN_END_STRING);
+        }
+        return this;
+    }
+
+    @Override
+    public SmileWriter value(boolean value) throws IOException {
+        out.write(value ? TOKEN_TRUE : TOKEN_FALSE);
+        return this;
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import static capital.scalable.restdocs.jsondoclet.CommentFormat.ASCIIDOC;
+import static capital.scalable.restdocs.jsondoclet.CommentFormat.JAVADOC;
+import static capital.scalable.restdocs.jsondoclet.CommentFormat.MARKDOWN;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class CommentFormatTest {
+
+    @Test
+    public void javadocIsNotConverted() {
+        String comment = "Uses {@code List<String>} and <b>bold</b>";
+        assertThat(JAVADOC.convert(comment), is(comment));
+        assertThat(CommentFormat.of(" Markdown "), is(MARKDOWN));
+    }
+
+    @Test
+    public void inlineTags() {
+        String comment = "Returns {@code Map<String, List<Item>>} of {@link java.util.List},"
+                + " {@link #getId() the id}, {@linkplain Item#name name} and {@literal a<b}";
+
+        assertThat(ASCIIDOC.convert(comment), is("Returns `+Map<String, List<Item>>+` of"
+                + " `+List+`, `+the id+`, name and `+a<b+`"));
+        assertThat(MARKDOWN.convert(comment), is("Returns `Map<String, List<Item>>` of"
+                + " `List`, `the id`, name and `a<b`"));
+    }
+
+    @Test
+    public void htmlTags() {
+        String comment = "First <b>line</b>,\n <i>second</i> &lt;line&gt;.\n <p>\n"
+                + " Paragraph with <code>code</code> and <a href=\"http://x.io\">link</a>.";
+
+        assertThat(ASCIIDOC.convert(comment), is("First *line*,\n_second_ <line>.\n\n"
+                + "Paragraph with `code` and http://x.io[link]."));
+        assertThat(MARKDOWN.convert(comment), is("First **line**,\n_second_ <line>.\n\n"
+                + "Paragraph with `code` and [link](http://x.io)."));
+    }
+
+    @Test
+    public void listsAndPreformattedText() {
+        String comment = "Values:\n <ul>\n <li>one</li>\n <li>two</li>\n </ul>\n"
+                + " <pre>\nif (a &amp;&amp; b) {\n    <b>c</b>;\n}</pre> Done<br>end";
+
+        assertThat(ASCIIDOC.convert(comment), is("Values:\n\n* one\n* two\n\n"
+                + "----\nif (a && b) {\n    c;\n}\n----\n\nDone +\nend"));
+        assertThat(MARKDOWN.convert(comment), is("Values:\n\n* one\n* two\n\n"
+                + "```\nif (a && b) {\n    c;\n}\n```\n\nDone  \nend"));
+    }
+
+    @Test
+    public void angleBracketsThatAreNoHtmlTagsAreText() {
+        String comment = "Returns List<String> if a < b and c > d, <unknown> stays, <b>bold</b>";
+
+        assertThat(ASCIIDOC.convert(comment), is("Returns List<String> if a < b and c > d,"
+                + " <unknown> stays, *bold*"));
+        assertThat(MARKDOWN.convert(comment), is("Returns List<String> if a < b and c > d,"
+                + " <unknown> stays, **bold**"));
+    }
+
+    @Test
+    public void preformattedTextIsKeptVerbatim() {
+        String comment = "Example:<pre>\nMap<String, List<T>> map = {@code x};\n"
+                + "  if (a < b && *c*) {\n      _d_;\n  }\n</pre>";
+
+        assertThat(ASCIIDOC.convert(comment), is("Example:\n\n----\n"
+                + "Map<String, List<T>> map = x;\n  if (a < b && *c*) {\n      _d_;\n  }\n"
+                + "----"));
+        assertThat(MARKDOWN.convert(comment), is("Example:\n\n```\n"
+                + "Map<String, List<T>> map = x;\n  if (a < b && *c*) {\n      _d_;\n  }\n"
+                + "```"));
+    }
+
+    @Test
+    public void nestedLists() {
+        String comment = "Steps:<ol><li>one<ul><li>a</li><li>b<ol><li>deep</li></ol></li>"
+                + "</ul></li><li>two</li></ol>Done";
+
+        assertThat(ASCIIDOC.convert(comment), is("Steps:\n\n. one\n** a\n** b\n... deep\n"
+                + ". two\n\nDone"));
+        assertThat(MARKDOWN.convert(comment), is("Steps:\n\n1. one\n    * a\n    * b\n"
+                + "        1. deep\n1. two\n\nDone"));
+    }
+}
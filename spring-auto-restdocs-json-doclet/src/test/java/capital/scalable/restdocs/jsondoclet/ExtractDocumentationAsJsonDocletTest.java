@@ -16,10 +16,16 @@
 
 package capital.scalable.restdocs.jsondoclet;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
+import com.sun.tools.javadoc.Main;
 import org.apache.commons.io.IOUtils;
 import org.json.JSONException;
 import org.junit.Test;
@@ -29,6 +35,8 @@ public class ExtractDocumentationAsJsonDocletTest {
 
     private static final String JSON_PATH =
             "capital/scalable/restdocs/jsondoclet/DocumentedClass.json";
+    private static final String JAVA_PATH =
+            "capital/scalable/restdocs/jsondoclet/DocumentedClass.java";
 
     @Test
     public void testDocumentedClass() throws IOException, JSONException {
@@ -38,4 +46,150 @@ public class ExtractDocumentationAsJsonDocletTest {
                 this.getClass().getClassLoader().getResourceAsStream(JSON_PATH));
         JSONAssert.assertEquals(expected, generated, false);
     }
+
+    @Test
+    public void testSingleFileIndex() throws IOException, JSONException {
+        File outputDir = new File("target/generated-javadoc-index");
+        int result = Main.execute("javadoc", ExtractDocumentationAsJsonDoclet.class.getName(),
+                ExtractDocumentationAsJsonDoclet.class.getClassLoader(),
+                new String[]{"-d", outputDir.getPath(), "-singlefileindex", "-package",
+                        "src/test/java/" + JAVA_PATH});
+        assertThat(result, is(0));
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(
+                new File(outputDir, JavadocIndexWriter.INDEX_FILE_NAME)))) {
+            assertThat(in.readInt(), is(JavadocIndexWriter.MAGIC));
+            assertThat(in.readInt(), is(JavadocIndexWriter.VERSION));
+            assertThat(in.readInt(), is(1));
+            assertThat(in.readUTF(), is("capital.scalable.restdocs.jsondoclet.DocumentedClass"));
+            assertThat(in.readInt(), is(0));
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+
+            String expected = IOUtils.toString(
+                    this.getClass().getClassLoader().getResourceAsStream(JSON_PATH));
+            JSONAssert.assertEquals(expected, new String(payload, "UTF-8"), false);
+        }
+    }
+
+    @Test
+    public void testIncremental() throws IOException {
+        File outputDir = new File("target/generated-javadoc-incremental");
+        File jsonFile = new File(outputDir, JSON_PATH);
+        File manifestFile = new File(outputDir, JavadocManifest.MANIFEST_FILE_NAME);
+        jsonFile.delete();
+        manifestFile.delete();
+
+        assertThat(runIncremental(outputDir), is(0));
+        assertThat(jsonFile.isFile(), is(true));
+        assertThat(manifestFile.isFile(), is(true));
+
+        // unchanged content is not written again
+        assertThat(jsonFile.setLastModified(1000L), is(true));
+        assertThat(runIncremental(outputDir), is(0));
+        assertThat(jsonFile.lastModified(), is(1000L));
+
+        // deleted files are written again
+        assertThat(jsonFile.delete(), is(true));
+        assertThat(runIncremental(outputDir), is(0));
+        assertThat(jsonFile.isFile(), is(true));
+    }
+
+    @Test
+    public void testIncrementalDeletesRemovedClasses() throws IOException {
+        File outputDir = new File("target/generated-javadoc-incremental-removed");
+        File serviceFile = new File(outputDir,
+                "capital/scalable/restdocs/jsondoclet/reachable/ItemService.json");
+        File manifestFile = new File(outputDir, JavadocManifest.MANIFEST_FILE_NAME);
+        manifestFile.delete();
+        String[] options = new String[]{"-d", outputDir.getPath(), "-incremental", "-private",
+                "-sourcepath", "src/test/java", "capital.scalable.restdocs.jsondoclet.reachable"};
+
+        assertThat(runDoclet(options), is(0));
+        assertThat(serviceFile.isFile(), is(true));
+
+        // ItemService is not reachable from the controller
+        String[] reachableOnly = Arrays.copyOf(options, options.length + 1);
+        reachableOnly[options.length] = "-reachableonly";
+        assertThat(runDoclet(reachableOnly), is(0));
+        assertThat(serviceFile.isFile(), is(false));
+        String manifest = IOUtils.toString(new FileInputStream(manifestFile));
+        assertThat(manifest.contains("reachable.ItemService "), is(false));
+        assertThat(manifest.contains("reachable.ItemController "), is(true));
+    }
+
+    @Test
+    public void testReachableOnly() {
+        File outputDir = new File("target/generated-javadoc-reachable");
+        String packageDir = "capital/scalable/restdocs/jsondoclet/reachable/";
+        int result = Main.execute("javadoc", ExtractDocumentationAsJsonDoclet.class.getName(),
+                ExtractDocumentationAsJsonDoclet.class.getClassLoader(),
+                new String[]{"-d", outputDir.getPath(), "-reachableonly", "-private",
+                        "-sourcepath", "src/test/java",
+                        "capital.scalable.restdocs.jsondoclet.reachable"});
+        assertThat(result, is(0));
+
+        assertThat(new File(outputDir, packageDir + "ItemController.json").isFile(), is(true));
+        assertThat(new File(outputDir, packageDir + "AbstractItemController.json").isFile(),
+                is(true));
+        assertThat(new File(outputDir, packageDir + "ItemRequest.json").isFile(), is(true));
+        assertThat(new File(outputDir, packageDir + "ItemResponse.json").isFile(), is(true));
+        assertThat(new File(outputDir, packageDir + "ItemDetail.json").isFile(), is(true));
+        assertThat(new File(outputDir, packageDir + "ItemService.json").isFile(), is(false));
+    }
+
+    @Test
+    public void testParallelWrites() {
+        File outputDir = new File("target/generated-javadoc-parallel");
+        String packageDir = "capital/scalable/restdocs/jsondoclet/reachable/";
+        int result = Main.execute("javadoc", ExtractDocumentationAsJsonDoclet.class.getName(),
+                ExtractDocumentationAsJsonDoclet.class.getClassLoader(),
+                new String[]{"-d", outputDir.getPath(), "-threads", "4", "-private",
+                        "-sourcepath", "src/test/java",
+                        "capital.scalable.restdocs.jsondoclet.reachable"});
+        assertThat(result, is(0));
+
+        for (String name : new String[]{"ItemController", "ItemRequest", "ItemResponse",
+                "ItemDetail", "ItemService"}) {
+            assertThat(new File(outputDir, packageDir + name + ".json").isFile(), is(true));
+        }
+    }
+
+    @Test
+    public void testFlatten() throws IOException, JSONException {
+        File outputDir = new File("target/generated-javadoc-flatten");
+        int result = Main.execute("javadoc", ExtractDocumentationAsJsonDoclet.class.getName(),
+                ExtractDocumentationAsJsonDoclet.class.getClassLoader(),
+                new String[]{"-d", outputDir.getPath(), "-flatten", "-private",
+                        "-sourcepath", "src/test/java",
+                        "capital.scalable.restdocs.jsondoclet.flatten"});
+        assertThat(result, is(0));
+
+        String generated = IOUtils.toString(new FileInputStream(new File(outputDir,
+                "capital/scalable/restdocs/jsondoclet/flatten/Customer.json")));
+        JSONAssert.assertEquals("{\"fields\":{"
+                        + "\"email\":\"E-mail of the customer\","
+                        + "\"version\":\"Version of the entity\"},"
+                        + "\"methods\":{"
+                        + "\"getName\":{\"comment\":\"Name of the entity\"},"
+                        + "\"getId\":{\"comment\":\"Identifier of the entity\","
+                        + "\"parameters\":{\"prefix\":\"prefix of the identifier\"}}},"
+                        + "\"flattened\":true,"
+                        + "\"inherited\":["
+                        + "\"capital.scalable.restdocs.jsondoclet.flatten.BaseEntity\","
+                        + "\"capital.scalable.restdocs.jsondoclet.flatten.Identified\"]}",
+                generated, false);
+    }
+
+    private static int runDoclet(String[] options) {
+        return Main.execute("javadoc", ExtractDocumentationAsJsonDoclet.class.getName(),
+                ExtractDocumentationAsJsonDoclet.class.getClassLoader(), options);
+    }
+
+    private static int runIncremental(File outputDir) {
+        return Main.execute("javadoc", ExtractDocumentationAsJsonDoclet.class.getName(),
+                ExtractDocumentationAsJsonDoclet.class.getClassLoader(),
+                new String[]{"-d", outputDir.getPath(), "-incremental", "-package",
+                        "src/test/java/" + JAVA_PATH});
+    }
 }
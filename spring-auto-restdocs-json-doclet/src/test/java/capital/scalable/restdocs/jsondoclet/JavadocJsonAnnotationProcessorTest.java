@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.commons.io.IOUtils;
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+public class JavadocJsonAnnotationProcessorTest {
+
+    private static final String JSON_PATH =
+            "capital/scalable/restdocs/jsondoclet/DocumentedClass.json";
+    private static final String JAVA_PATH =
+            "capital/scalable/restdocs/jsondoclet/DocumentedClass.java";
+
+    @Test
+    public void writesSameJsonAsDoclet() throws IOException, JSONException {
+        File outputDir = new File("target/generated-processor-json");
+        File classesDir = new File("target/generated-processor-classes");
+        classesDir.mkdirs();
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, Arrays.asList("-proc:only",
+                "-processor", JavadocJsonAnnotationProcessor.class.getName(),
+                "-processorpath", System.getProperty("java.class.path"),
+                "-A" + JavadocJsonAnnotationProcessor.JAVADOC_JSON_DIR_OPTION + "="
+                        + outputDir.getPath(),
+                "-d", classesDir.getPath(),
+                "src/test/java/" + JAVA_PATH).toArray(new String[0]));
+        assertThat(result, is(0));
+
+        String generated = IOUtils.toString(new FileInputStream(new File(outputDir, JSON_PATH)));
+        String expected = IOUtils.toString(
+                this.getClass().getClassLoader().getResourceAsStream(JSON_PATH));
+        JSONAssert.assertEquals(expected, generated, false);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class JsonWriterTest {
+
+    @Test
+    public void escapesAsRequiredByRfc8259() {
+        assertThat(JsonUtils.escape("quote \" backslash \\ slash /"),
+                is("quote \\\" backslash \\\\ slash /"));
+        assertThat(JsonUtils.escape("\b\f\n\r\t"), is("\\b\\f\\n\\r\\t"));
+        assertThat(JsonUtils.escape("\u0000\u001f "), is("\\u0000\\u001f "));
+        assertThat(JsonUtils.escape("\u2028\u2029"), is("\\u2028\\u2029"));
+        assertThat(JsonUtils.escape("\u00e4\u20ac"), is("\u00e4\u20ac"));
+    }
+
+    @Test
+    public void writesNestedObjects() throws IOException {
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).beginObject()
+                .name("a").value("1")
+                .name("b").beginObject().name("c").value(null).endObject()
+                .name("d").beginObject().endObject()
+                .endObject();
+
+        assertThat(out.toString(), is("{\"a\":\"1\",\"b\":{\"c\":\"\"},\"d\":{}}"));
+    }
+
+    @Test
+    public void writesArrays() throws IOException {
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).beginObject()
+                .name("a").beginArray().value("1").value("2").endArray()
+                .name("b").beginArray().endArray()
+                .name("c").value(true)
+                .endObject();
+
+        assertThat(out.toString(), is("{\"a\":[\"1\",\"2\"],\"b\":[],\"c\":true}"));
+    }
+}
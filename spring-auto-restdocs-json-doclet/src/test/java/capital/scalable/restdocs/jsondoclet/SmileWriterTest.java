@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package capital.scalable.restdocs.jsondoclet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class SmileWriterTest {
+
+    @Test
+    public void writesHeaderAndTokens() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SmileWriter(out).beginObject()
+                .name("a").value("bc")
+                .name("d").value("")
+                .name("e").value(true)
+                .name("ä").value("ä")
+                .name("f").beginArray().value("g").endArray()
+                .endObject();
+
+        assertThat(Arrays.toString(out.toByteArray()), is(Arrays.toString(new byte[]{
+                ':', ')', '\n', 0,
+                (byte) 0xFA,
+                (byte) 0x80, 'a', 0x41, 'b', 'c',
+                (byte) 0x80, 'd', 0x20,
+                (byte) 0x80, 'e', 0x23,
+                (byte) 0xC0, (byte) 0xC3, (byte) 0xA4, (byte) 0x80, (byte) 0xC3, (byte) 0xA4,
+                (byte) 0x80, 'f', (byte) 0xF8, 0x40, 'g', (byte) 0xF9,
+                (byte) 0xFB})));
+    }
+
+    @Test
+    public void writesLongStringsWithEndMarker() throws IOException {
+        char[] chars = new char[100];
+        Arrays.fill(chars, 'x');
+        String longText = new String(chars);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SmileWriter(out).value(longText);
+
+        byte[] bytes = out.toByteArray();
+        assertThat(bytes.length, is(4 + 1 + 100 + 1));
+        assertThat(bytes[4], is((byte) 0xE0));
+        assertThat(bytes[bytes.length - 1], is((byte) 0xFC));
+    }
+}